@@ -24,16 +24,23 @@ import ch.njol.skript.config.SectionNode;
 import ch.njol.skript.config.SimpleNode;
 import ch.njol.skript.events.bukkit.PreScriptLoadEvent;
 import ch.njol.skript.lang.Section;
+import ch.njol.skript.lang.SelfRegisteringSkriptEvent;
+import ch.njol.skript.lang.SkriptEvent;
 import ch.njol.skript.lang.SkriptParser;
 import ch.njol.skript.lang.Statement;
 import ch.njol.skript.lang.TriggerItem;
 import ch.njol.skript.lang.TriggerSection;
+import ch.njol.skript.lang.function.Functions;
+import ch.njol.skript.lang.function.Signature;
 import ch.njol.skript.lang.parser.ParserInstance;
 import ch.njol.skript.log.CountingLogHandler;
 import ch.njol.skript.log.LogEntry;
 import ch.njol.skript.log.RetainingLogHandler;
 import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.sections.SecLoop;
+import ch.njol.skript.structures.StructCommand;
+import ch.njol.skript.structures.StructEvent;
+import ch.njol.skript.structures.StructFunction;
 import ch.njol.skript.structures.StructOptions.OptionsData;
 import ch.njol.skript.util.ExceptionUtils;
 import ch.njol.skript.util.SkriptColor;
@@ -48,27 +55,47 @@ import org.bukkit.Bukkit;
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 import org.skriptlang.skript.lang.script.Script;
+import org.skriptlang.skript.lang.script.ScriptWarning;
+import org.skriptlang.skript.lang.script.ScriptData;
 import org.skriptlang.skript.lang.structure.Structure;
+import org.skriptlang.skript.lang.structure.StructureInfo;
 
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -488,117 +515,40 @@ public class ScriptLoader {
 
 		Bukkit.getPluginManager().callEvent(new PreScriptLoadEvent(configs));
 		
-		ScriptInfo scriptInfo = new ScriptInfo();
-
-		List<NonNullPair<Script, List<Structure>>> scripts = new ArrayList<>();
-
-		List<CompletableFuture<Void>> scriptInfoFutures = new ArrayList<>();
+		List<CompletableFuture<NonNullPair<Script, List<Structure>>>> scriptFutures = new ArrayList<>();
 		for (Config config : configs) {
 			if (config == null)
 				throw new NullPointerException();
 			
-			CompletableFuture<Void> future = makeFuture(() -> {
-				NonNullPair<Script, List<Structure>> pair = loadScript(config);
-				scripts.add(pair);
-				scriptInfo.add(new ScriptInfo(1, pair.getSecond().size()));
-				return null;
-			}, openCloseable);
-			
-			scriptInfoFutures.add(future);
+			scriptFutures.add(makeFuture(() -> loadScript(config), openCloseable));
 		}
 		
-		return CompletableFuture.allOf(scriptInfoFutures.toArray(new CompletableFuture[0]))
+		return CompletableFuture.allOf(scriptFutures.toArray(new CompletableFuture[0]))
 			.thenApply(unused -> {
-				// TODO in the future this won't work when parallel loading is fixed
-				// It does now though so let's avoid calling getParser() a bunch.
 				ParserInstance parser = getParser();
 
 				try {
 					openCloseable.open();
 
-					// build sorted list
+					// collect the scripts in the order of their configs, regardless of which loader parsed them first
+					ScriptInfo scriptInfo = new ScriptInfo();
+					List<NonNullPair<Script, List<Structure>>> scripts = new ArrayList<>(scriptFutures.size());
+					for (CompletableFuture<NonNullPair<Script, List<Structure>>> future : scriptFutures) {
+						NonNullPair<Script, List<Structure>> pair = future.join();
+						scripts.add(pair);
+						scriptInfo.add(new ScriptInfo(1, pair.getSecond().size()));
+					}
+
+					// build list of all structures to load
 					// this nest of pairs is terrible, but we need to keep the reference to the modifiable structures list
 					List<NonNullPair<NonNullPair<Script, List<Structure>>, Structure>> pairs = scripts.stream()
 							.flatMap(pair -> { // Flatten each entry down to a stream of Script-Structure pairs
 								return pair.getSecond().stream()
 										.map(structure -> new NonNullPair<>(pair, structure));
 							})
-							.sorted(Comparator.comparing(pair -> pair.getSecond().getPriority()))
 							.collect(Collectors.toCollection(ArrayList::new));
 
-					// pre-loading
-					pairs.removeIf(pair -> {
-						Structure structure = pair.getSecond();
-
-						parser.setActive(pair.getFirst().getFirst());
-						parser.setCurrentStructure(structure);
-						parser.setNode(structure.getEntryContainer().getSource());
-
-						try {
-							if (!structure.preLoad()) {
-								pair.getFirst().getSecond().remove(structure);
-								return true;
-							}
-						} catch (Exception e) {
-							//noinspection ThrowableNotThrown
-							Skript.exception(e, "An error occurred while trying to preLoad a Structure.");
-							pair.getFirst().getSecond().remove(structure);
-							return true;
-						}
-						return false;
-					});
-					parser.setInactive();
-
-					// TODO in the future, Structure#load/Structure#postLoad should be split across multiple threads if parallel loading is enabled.
-					// However, this is not possible right now as reworks in multiple areas will be needed.
-					// For example, the "Commands" class still uses a static list for currentArguments that is cleared between loads.
-					// Until these reworks happen, limiting main loading to asynchronous (not parallel) is the only choice we have.
-
-					// loading
-					pairs.removeIf(pair -> {
-						Structure structure = pair.getSecond();
-
-						parser.setActive(pair.getFirst().getFirst());
-						parser.setCurrentStructure(structure);
-						parser.setNode(structure.getEntryContainer().getSource());
-
-						try {
-							if (!structure.load()) {
-								pair.getFirst().getSecond().remove(structure);
-								return true;
-							}
-						} catch (Exception e) {
-							//noinspection ThrowableNotThrown
-							Skript.exception(e, "An error occurred while trying to load a Structure.");
-							pair.getFirst().getSecond().remove(structure);
-							return true;
-						}
-						return false;
-					});
-					parser.setInactive();
-
-					// post-loading
-					pairs.removeIf(pair -> {
-						Structure structure = pair.getSecond();
-
-						parser.setActive(pair.getFirst().getFirst());
-						parser.setCurrentStructure(structure);
-						parser.setNode(structure.getEntryContainer().getSource());
-
-						try {
-							if (!structure.postLoad()) {
-								pair.getFirst().getSecond().remove(structure);
-								return true;
-							}
-						} catch (Exception e) {
-							//noinspection ThrowableNotThrown
-							Skript.exception(e, "An error occurred while trying to postLoad a Structure.");
-							pair.getFirst().getSecond().remove(structure);
-							return true;
-						}
-						return false;
-					});
-					parser.setInactive();
+					loadStructures(parser, pairs, openCloseable);
 
 					return scriptInfo;
 				} catch (Exception e) {
@@ -612,6 +562,197 @@ public class ScriptLoader {
 			});
 	}
 
+	/**
+	 * Loads the provided structures through the {@link Structure#preLoad()}, {@link Structure#load()}
+	 *  and {@link Structure#postLoad()} stages, in order of their priority.
+	 * Structures that fail to load are removed from the modifiable structures list of their script.
+	 * If parallel loading is enabled, events are loaded by all async loaders (see {@link #isParallel()}).
+	 * @param parser The parser instance to load the structures with.
+	 * @param pairs Pairs of a script with its modifiable structures list, and a structure of the script to load.
+	 * @param openCloseable An {@link OpenCloseable} that is opened by each async loader while it's loading structures.
+	 */
+	private static void loadStructures(
+		ParserInstance parser,
+		List<NonNullPair<NonNullPair<Script, List<Structure>>, Structure>> pairs,
+		OpenCloseable openCloseable
+	) {
+		pairs.sort(Comparator.comparing(pair -> pair.getSecond().getPriority()));
+		int count = pairs.size();
+
+		// pre-loading
+		long start = System.nanoTime();
+		loadStructures(parser, pairs, Structure::preLoad, "preLoad");
+		long preLoadTime = System.nanoTime() - start;
+
+		// loading
+		start = System.nanoTime();
+		if (isParallel()) {
+			loadStructuresInParallel(parser, pairs, openCloseable);
+		} else {
+			loadStructures(parser, pairs, Structure::load, "load");
+		}
+		long loadTime = System.nanoTime() - start;
+
+		// post-loading
+		start = System.nanoTime();
+		loadStructures(parser, pairs, Structure::postLoad, "postLoad");
+		long postLoadTime = System.nanoTime() - start;
+
+		if (Skript.logHigh()) {
+			Skript.info("loaded " + pairs.size() + " of " + count + " structures"
+				+ " (preLoad: " + TimeUnit.NANOSECONDS.toMillis(preLoadTime) + " ms"
+				+ ", load: " + TimeUnit.NANOSECONDS.toMillis(loadTime) + " ms"
+				+ ", postLoad: " + TimeUnit.NANOSECONDS.toMillis(postLoadTime) + " ms)");
+		}
+		if (Skript.debug())
+			Skript.debug("parser caches: " + SkriptParser.getCacheStatistics());
+	}
+
+	/**
+	 * Runs a loading stage for the provided structures, one after another.
+	 * @see #loadStructures(ParserInstance, List, OpenCloseable)
+	 */
+	private static void loadStructures(
+		ParserInstance parser,
+		List<NonNullPair<NonNullPair<Script, List<Structure>>, Structure>> pairs,
+		Predicate<Structure> stage,
+		String stageName
+	) {
+		pairs.removeIf(pair -> {
+			if (loadStructure(parser, pair, stage, stageName))
+				return false;
+			pair.getFirst().getSecond().remove(pair.getSecond());
+			return true;
+		});
+		parser.setInactive();
+	}
+
+	/**
+	 * Runs the {@link Structure#load()} stage for the provided structures.
+	 * Consecutive events are loaded by all async loaders, as their triggers are parsed independently of each other.
+	 * Syntax elements that keep state while parsing must keep it in the {@link ParserInstance} of the loader,
+	 *  which is separate for each thread (e.g. {@link ch.njol.skript.expressions.ExprFilter.FilterData}).
+	 * Other structures (e.g. functions and commands) are loaded by the current thread,
+	 *  as they share state while loading (e.g. {@link Functions#currentFunction}).
+	 * @see #loadStructures(ParserInstance, List, OpenCloseable)
+	 */
+	private static void loadStructuresInParallel(
+		ParserInstance parser,
+		List<NonNullPair<NonNullPair<Script, List<Structure>>, Structure>> pairs,
+		OpenCloseable openCloseable
+	) {
+		Set<Structure> failed = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+		int i = 0;
+		while (i < pairs.size()) {
+			NonNullPair<NonNullPair<Script, List<Structure>>, Structure> pair = pairs.get(i);
+			if (!isParallelLoadable(pair.getSecond())) {
+				if (!loadStructure(parser, pair, Structure::load, "load"))
+					failed.add(pair.getSecond());
+				i++;
+				continue;
+			}
+
+			int end = i + 1;
+			while (end < pairs.size() && isParallelLoadable(pairs.get(end).getSecond()))
+				end++;
+
+			Queue<NonNullPair<NonNullPair<Script, List<Structure>>, Structure>> queue = new ConcurrentLinkedQueue<>(pairs.subList(i, end));
+			CountDownLatch latch = new CountDownLatch(queue.size());
+			int helpers = Math.min(asyncLoaderSize, queue.size() - 1);
+			for (int j = 0; j < helpers; j++) {
+				loadQueue.add(() -> {
+					if (queue.isEmpty())
+						return;
+					openCloseable.open();
+					try {
+						loadStructures(getParser(), queue, latch, failed);
+					} finally {
+						openCloseable.close();
+					}
+				});
+			}
+
+			// Structures that haven't been taken by a loader yet are loaded by this thread,
+			//  so only the structures that are currently being loaded by other loaders have to be waited for
+			loadStructures(parser, queue, latch, failed);
+			try {
+				latch.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				//noinspection ThrowableNotThrown
+				Skript.exception(e);
+			}
+			i = end;
+		}
+		parser.setInactive();
+
+		pairs.removeIf(pair -> {
+			if (!failed.contains(pair.getSecond()))
+				return false;
+			pair.getFirst().getSecond().remove(pair.getSecond());
+			return true;
+		});
+	}
+
+	/**
+	 * Loads structures taken from the provided queue until it is empty.
+	 * @see #loadStructuresInParallel(ParserInstance, List, OpenCloseable)
+	 */
+	private static void loadStructures(
+		ParserInstance parser,
+		Queue<NonNullPair<NonNullPair<Script, List<Structure>>, Structure>> queue,
+		CountDownLatch latch,
+		Set<Structure> failed
+	) {
+		NonNullPair<NonNullPair<Script, List<Structure>>, Structure> pair;
+		while ((pair = queue.poll()) != null) {
+			try {
+				if (!loadStructure(parser, pair, Structure::load, "load"))
+					failed.add(pair.getSecond());
+			} finally {
+				latch.countDown();
+			}
+		}
+		parser.setInactive();
+	}
+
+	/**
+	 * @return Whether the provided structure may be loaded concurrently with other such structures.
+	 */
+	private static boolean isParallelLoadable(Structure structure) {
+		// Self registering events may do anything after parsing, see SelfRegisteringSkriptEvent#afterParse
+		return structure instanceof SkriptEvent && !(structure instanceof SelfRegisteringSkriptEvent);
+	}
+
+	/**
+	 * Runs a loading stage for the provided structure with the provided parser instance.
+	 * @param pair A pair of a script with its modifiable structures list, and a structure of the script to load.
+	 * @param stage The loading stage, e.g. {@link Structure#load()}.
+	 * @param stageName The name of the loading stage, used when an exception occurs.
+	 * @return Whether the stage was successful.
+	 */
+	private static boolean loadStructure(
+		ParserInstance parser,
+		NonNullPair<NonNullPair<Script, List<Structure>>, Structure> pair,
+		Predicate<Structure> stage,
+		String stageName
+	) {
+		Structure structure = pair.getSecond();
+
+		parser.setActive(pair.getFirst().getFirst());
+		parser.setCurrentStructure(structure);
+		parser.setNode(structure.getEntryContainer().getSource());
+
+		try {
+			return stage.test(structure);
+		} catch (Exception e) {
+			//noinspection ThrowableNotThrown
+			Skript.exception(e, "An error occurred while trying to " + stageName + " a Structure.");
+			return false;
+		}
+	}
+
 	/**
 	 * Creates a script and loads the provided config into it.
 	 * @param config The config to load into a script.
@@ -631,32 +772,20 @@ public class ScriptLoader {
 			if (SkriptConfig.keepConfigsLoaded.value())
 				SkriptConfig.configs.add(config);
 			
+			StructureFingerprints fingerprints = SkriptConfig.incrementalReloads.value()
+				? script.getData(StructureFingerprints.class, StructureFingerprints::new) : null;
+
 			try (CountingLogHandler ignored = new CountingLogHandler(SkriptLogger.SEVERE).start()) {
 				for (Node cnode : config.getMainNode()) {
-					if (!(cnode instanceof SectionNode)) {
-						Skript.error("invalid line - all code has to be put into triggers");
-						continue;
-					}
-
-					SectionNode node = ((SectionNode) cnode);
-					String line = node.getKey();
-					if (line == null)
-						continue;
-
-					if (!SkriptParser.validateLine(line))
-						continue;
-
-					if (Skript.logVeryHigh() && !Skript.debug())
-						Skript.info("loading trigger '" + line + "'");
-
-					line = replaceOptions(line);
-
-					Structure structure = Structure.parse(line, node, "Can't understand this structure: " + line);
+					String fingerprint = fingerprints != null && cnode instanceof SectionNode ? getFingerprint((SectionNode) cnode) : null;
 
+					Structure structure = parseStructure(cnode);
 					if (structure == null)
 						continue;
 
 					structures.add(structure);
+					if (fingerprints != null)
+						fingerprints.put(structure, fingerprint);
 				}
 				
 				if (Skript.logHigh()) {
@@ -698,6 +827,89 @@ public class ScriptLoader {
 		return new NonNullPair<>(script, structures);
 	}
 
+	/**
+	 * Parses a top-level node of a script into a structure.
+	 * The parser must be active for the script.
+	 * @param cnode The node to parse.
+	 * @return The parsed structure, or null if the node isn't a valid structure.
+	 */
+	@Nullable
+	private static Structure parseStructure(Node cnode) {
+		if (!(cnode instanceof SectionNode)) {
+			Skript.error("invalid line - all code has to be put into triggers");
+			return null;
+		}
+
+		SectionNode node = ((SectionNode) cnode);
+		String line = node.getKey();
+		if (line == null)
+			return null;
+
+		if (!SkriptParser.validateLine(line))
+			return null;
+
+		if (Skript.logVeryHigh() && !Skript.debug())
+			Skript.info("loading trigger '" + line + "'");
+
+		line = replaceOptions(line);
+
+		return Structure.parse(line, node, "Can't understand this structure: " + line);
+	}
+
+	/**
+	 * The fingerprints of the source of the structures of a script, used to find the structures
+	 *  that haven't changed when the script is reloaded incrementally (see {@link #reloadScript(Script, OpenCloseable)}).
+	 */
+	private static final class StructureFingerprints implements ScriptData {
+
+		private final Map<Structure, String> fingerprints = new ConcurrentHashMap<>();
+
+		@Nullable
+		String get(Structure structure) {
+			return fingerprints.get(structure);
+		}
+
+		void put(Structure structure, String fingerprint) {
+			fingerprints.put(structure, fingerprint);
+		}
+
+		void retainAll(Collection<Structure> structures) {
+			fingerprints.keySet().retainAll(structures);
+		}
+
+	}
+
+	/**
+	 * @param node A node of a script.
+	 * @return The top-level node of the script containing the given node.
+	 */
+	private static Node getTopLevelNode(Node node) {
+		SectionNode parent = node.getParent();
+		while (parent != null && parent.getParent() != null) {
+			node = parent;
+			parent = node.getParent();
+		}
+		return node;
+	}
+
+	/**
+	 * @param node A top-level node of a script.
+	 * @return A hash of the source of the node, including its line.
+	 */
+	private static String getFingerprint(SectionNode node) {
+		StringWriter source = new StringWriter();
+		source.write(node.getLine() + "\n");
+		try (PrintWriter writer = new PrintWriter(source)) {
+			node.save(writer);
+		}
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return Base64.getEncoder().encodeToString(digest.digest(source.toString().getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e); // Every Java platform is required to support SHA-256
+		}
+	}
+
 	/*
 	 * Script Structure Loading Methods
 	 */
@@ -874,9 +1086,180 @@ public class ScriptLoader {
 	 * @return Info on the loaded Script.
 	 */
 	public static CompletableFuture<ScriptInfo> reloadScript(Script script, OpenCloseable openCloseable) {
+		if (SkriptConfig.incrementalReloads.value()) {
+			CompletableFuture<ScriptInfo> future = reloadScriptIncrementally(script, openCloseable);
+			if (future != null)
+				return future;
+		}
 		return reloadScripts(Collections.singleton(script), openCloseable);
 	}
 
+	/**
+	 * Reloads a single Script, keeping the {@link Structure#isReusable() reusable} Structures whose source hasn't changed loaded.
+	 * Only the Structures that have changed, those that aren't reusable, and those calling a function that has changed,
+	 *  are unloaded and loaded again.
+	 * The source of a Structure includes its position, so that line numbers in its triggers remain correct.
+	 * @param script The Script to reload.
+	 * @param openCloseable An {@link OpenCloseable} that will be called before and after loading the Script.
+	 * @return Info on the loaded Script, or null if the Script has to be reloaded completely,
+	 *  as a Structure that isn't reusable has changed or may have been added, the Script suppresses warnings,
+	 *  or the Script wasn't loaded with incremental reloads enabled.
+	 */
+	@Nullable
+	private static CompletableFuture<ScriptInfo> reloadScriptIncrementally(Script script, OpenCloseable openCloseable) {
+		StructureFingerprints fingerprints = script.getData(StructureFingerprints.class);
+		File file = script.getConfig().getFile();
+		if (fingerprints == null || file == null || !file.exists() || !loadedScripts.contains(script))
+			return null;
+
+		// Warnings may have been suppressed while parsing a structure that is kept, which wouldn't be parsed again
+		for (ScriptWarning warning : ScriptWarning.values()) {
+			if (script.suppressesWarning(warning))
+				return null;
+		}
+
+		Map<String, Deque<Structure>> structuresBySource = new HashMap<>();
+		for (Structure structure : script.getStructures()) {
+			String fingerprint = fingerprints.get(structure);
+			if (fingerprint == null)
+				return null;
+			structuresBySource.computeIfAbsent(fingerprint, k -> new ArrayDeque<>()).add(structure);
+		}
+
+		Config config = loadStructure(file);
+		if (config == null)
+			return null;
+
+		// Find the structures that can be kept
+		List<NonNullPair<Node, String>> nodes = new ArrayList<>();
+		Map<Node, Structure> unchangedStructures = new IdentityHashMap<>();
+		for (Node node : config.getMainNode()) {
+			String fingerprint = node instanceof SectionNode ? getFingerprint((SectionNode) node) : "";
+			nodes.add(new NonNullPair<>(node, fingerprint));
+			Deque<Structure> unchanged = structuresBySource.get(fingerprint);
+			Structure structure = unchanged == null ? null : unchanged.poll();
+			if (structure != null && structure.isReusable()) {
+				unchangedStructures.put(node, structure);
+			} else if (structure == null && mayAffectOtherStructures(node)) {
+				// A new structure that isn't reusable (e.g. a first options section) may affect the structures that would be kept
+				return null;
+			}
+		}
+
+		// A changed structure that isn't reusable (e.g. options) may affect any other structure
+		for (Deque<Structure> changed : structuresBySource.values()) {
+			for (Structure structure : changed) {
+				if (!structure.isReusable())
+					return null;
+			}
+		}
+
+		// Kept structures calling a function of this script that is unloaded would keep calling its old signature,
+		// so they have to be parsed again as well, and so do the structures calling them if they are functions
+		Set<Structure> keptStructures = Collections.newSetFromMap(new IdentityHashMap<>());
+		keptStructures.addAll(unchangedStructures.values());
+		Map<Node, Structure> keptBySource = new IdentityHashMap<>();
+		for (Structure structure : keptStructures)
+			keptBySource.put(structure.getEntryContainer().getSource(), structure);
+		Deque<Structure> toUnload = new ArrayDeque<>();
+		for (Structure structure : script.getStructures()) {
+			if (!keptStructures.contains(structure))
+				toUnload.add(structure);
+		}
+		List<Structure> unloadedStructures = new ArrayList<>();
+		while (!toUnload.isEmpty()) {
+			Structure structure = toUnload.poll();
+			unloadedStructures.add(structure);
+			Signature<?> signature = structure instanceof StructFunction ? ((StructFunction) structure).getSignature() : null;
+			if (signature == null)
+				continue;
+			for (Node call : Functions.getCallsFromScript(signature)) {
+				Structure caller = keptBySource.remove(getTopLevelNode(call));
+				if (caller != null) {
+					keptStructures.remove(caller);
+					toUnload.add(caller);
+				}
+			}
+		}
+
+		// Find the nodes that have to be parsed, in the order of the script
+		List<NonNullPair<Node, String>> changedNodes = new ArrayList<>();
+		for (NonNullPair<Node, String> node : nodes) {
+			Structure structure = unchangedStructures.get(node.getFirst());
+			if (structure == null || !keptStructures.contains(structure))
+				changedNodes.add(node);
+		}
+
+		Bukkit.getPluginManager().callEvent(new PreScriptLoadEvent(Collections.singletonList(config)));
+
+		ParserInstance parser = getParser();
+
+		// unload the structures that aren't kept
+		parser.setActive(script);
+		for (Structure structure : unloadedStructures)
+			structure.unload();
+		for (Structure structure : unloadedStructures)
+			structure.postUnload();
+		parser.setInactive();
+
+		List<Structure> structures = script.reload(config, keptStructures);
+		fingerprints.retainAll(keptStructures);
+		if (SkriptConfig.keepConfigsLoaded.value())
+			SkriptConfig.configs.add(config);
+
+		NonNullPair<Script, List<Structure>> scriptPair = new NonNullPair<>(script, structures);
+		return makeFuture(() -> {
+			List<NonNullPair<NonNullPair<Script, List<Structure>>, Structure>> pairs = new ArrayList<>();
+			parser.setActive(script);
+			try (CountingLogHandler ignored = new CountingLogHandler(SkriptLogger.SEVERE).start()) {
+				for (NonNullPair<Node, String> changed : changedNodes) {
+					SkriptLogger.setNode(changed.getFirst());
+					Structure structure = parseStructure(changed.getFirst());
+					if (structure == null)
+						continue;
+					fingerprints.put(structure, changed.getSecond());
+					pairs.add(new NonNullPair<>(scriptPair, structure));
+				}
+			} finally {
+				parser.setInactive();
+			}
+			for (NonNullPair<NonNullPair<Script, List<Structure>>, Structure> pair : pairs)
+				structures.add(pair.getSecond());
+
+			if (Skript.logHigh()) {
+				Skript.info("reloaded " + pairs.size() + " of " + (pairs.size() + keptStructures.size())
+					+ " structures from '" + config.getFileName() + "'");
+			}
+
+			loadStructures(parser, pairs, openCloseable);
+			Functions.validateFunctions();
+			return new ScriptInfo(1, structures.size());
+		}, openCloseable);
+	}
+
+	/**
+	 * Checks, without parsing it, whether a new top-level node may be a structure that other structures
+	 *  of its script depend on while parsing, like options or aliases.
+	 * Events, functions and commands never are, and any other structure is assumed to be.
+	 * @param node A top-level node of a script.
+	 * @return Whether the structures of the script have to be parsed again if the node is new.
+	 */
+	private static boolean mayAffectOtherStructures(Node node) {
+		String key = node.getKey();
+		if (!(node instanceof SectionNode) || key == null)
+			return false;
+		for (StructureInfo<? extends Structure> info : Skript.getStructures()) {
+			Class<? extends Structure> c = info.getElementClass();
+			if (c == StructEvent.class || c == StructFunction.class || c == StructCommand.class)
+				continue;
+			for (int i = 0; i < info.patterns.length; i++) {
+				if (info.getCompiledPattern(i).match(key) != null)
+					return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Reloads all provided Scripts.
 	 * @param scripts The Scripts to reload.
@@ -945,6 +1328,7 @@ public class ScriptLoader {
 				Statement stmt = Statement.parse(expr, "Can't understand this condition/effect: " + expr);
 				if (stmt == null)
 					continue;
+				stmt.setLineNumber(subNode.getLine());
 				long requiredTime = SkriptConfig.longParseTimeWarningThreshold.value().getMilliSeconds();
 				if (requiredTime > 0) {
 					long timeTaken = System.currentTimeMillis() - start;
@@ -965,6 +1349,7 @@ public class ScriptLoader {
 				Section section = Section.parse(expr, "Can't understand this section: " + expr, (SectionNode) subNode, items);
 				if (section == null)
 					continue;
+				section.setLineNumber(subNode.getLine());
 
 				if (Skript.debug() || subNode.debug())
 					Skript.debug(SkriptColor.replaceColorChar(parser.getIndentation() + section.toString(null, true)));
@@ -31,6 +31,7 @@ import ch.njol.skript.classes.data.JavaClasses;
 import ch.njol.skript.classes.data.SkriptClasses;
 import ch.njol.skript.command.Commands;
 import ch.njol.skript.doc.Documentation;
+import ch.njol.skript.effects.Delay;
 import ch.njol.skript.events.EvtSkript;
 import ch.njol.skript.hooks.Hook;
 import ch.njol.skript.lang.Condition;
@@ -45,6 +46,7 @@ import ch.njol.skript.lang.Statement;
 import ch.njol.skript.lang.SyntaxElementInfo;
 import ch.njol.skript.lang.Trigger;
 import ch.njol.skript.lang.TriggerItem;
+import ch.njol.skript.lang.parser.ParseCache;
 import ch.njol.skript.lang.util.SimpleExpression;
 import ch.njol.skript.localization.Language;
 import ch.njol.skript.localization.Message;
@@ -554,6 +556,9 @@ public final class Skript extends JavaPlugin implements Listener {
 		if (logNormal())
 			info(" " + Language.get("skript.copyright"));
 		
+		// Started before any other task, so delays scheduled by other tasks are counted from the current tick
+		Delay.startResuming();
+
 		final long tick = testing() ? Bukkit.getWorlds().get(0).getFullTime() : 0;
 		Bukkit.getScheduler().scheduleSyncDelayedTask(this, new Runnable() {
 			@SuppressWarnings("synthetic-access")
@@ -603,6 +608,9 @@ public final class Skript extends JavaPlugin implements Listener {
 				}
 				
 				stopAcceptingRegistrations();
+
+				ParseCache.load();
+				closeOnDisable(ParseCache::save);
 				
 				
 				Documentation.generate(); // TODO move to test classes?
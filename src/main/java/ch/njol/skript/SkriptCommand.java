@@ -30,6 +30,7 @@ import ch.njol.skript.log.TimingLogHandler;
 import ch.njol.skript.test.runner.SkriptTestEvent;
 import ch.njol.skript.test.runner.TestMode;
 import ch.njol.skript.test.runner.TestTracker;
+import ch.njol.skript.timings.SkriptProfiler;
 import ch.njol.skript.util.ExceptionUtils;
 import ch.njol.skript.util.FileUtils;
 import ch.njol.skript.util.SkriptColor;
@@ -78,6 +79,10 @@ public class SkriptCommand implements CommandExecutor {
 			.add("check")
 			.add("changes")
 			.add("download")
+		).add(new CommandHelp("profile", SkriptColor.DARK_RED)
+			.add("start")
+			.add("stop")
+			.add("dump")
 		).add("info"
 		).add("help");
 
@@ -185,9 +190,8 @@ public class SkriptCommand implements CommandExecutor {
 						reloading(sender, "script", scriptFile.getName());
 
 						Script script = ScriptLoader.getScript(scriptFile);
-						if (script != null)
-							ScriptLoader.unloadScript(script);
-						ScriptLoader.loadScripts(scriptFile, OpenCloseable.combine(logHandler, timingLogHandler))
+						OpenCloseable openCloseable = OpenCloseable.combine(logHandler, timingLogHandler);
+						(script != null ? ScriptLoader.reloadScript(script, openCloseable) : ScriptLoader.loadScripts(scriptFile, openCloseable))
 							.thenAccept(scriptInfo ->
 								reloaded(sender, logHandler, timingLogHandler, "script", scriptFile.getName())
 							);
@@ -356,6 +360,34 @@ public class SkriptCommand implements CommandExecutor {
 				}
 			}
 
+			else if (args[0].equalsIgnoreCase("profile")) {
+				if (args[1].equalsIgnoreCase("start")) {
+					SkriptProfiler.start();
+					info(sender, "profile.started");
+					if (!SkriptProfiler.isMeasuringAllocations())
+						info(sender, "profile.no allocations");
+				} else if (args[1].equalsIgnoreCase("stop")) {
+					if (!SkriptProfiler.isRunning()) {
+						error(sender, "profile.not running");
+						return true;
+					}
+					SkriptProfiler.stop();
+					info(sender, "profile.stopped");
+				} else if (args[1].equalsIgnoreCase("dump")) {
+					if (!SkriptProfiler.hasProfile()) {
+						error(sender, "profile.no profile");
+						return true;
+					}
+					File folder = new File(Skript.getInstance().getDataFolder(), "profiles");
+					try {
+						File file = SkriptProfiler.dump(folder);
+						info(sender, "profile.dumped", folder.getName() + File.separator + file.getName());
+					} catch (IOException e) {
+						error(sender, "profile.io error", ExceptionUtils.toString(e));
+					}
+				}
+			}
+
 			else if (args[0].equalsIgnoreCase("info")) {
 				info(sender, "info.aliases");
 				info(sender, "info.documentation");
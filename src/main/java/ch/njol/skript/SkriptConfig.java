@@ -30,6 +30,7 @@ import ch.njol.skript.hooks.regions.PreciousStonesHook;
 import ch.njol.skript.hooks.regions.ResidenceHook;
 import ch.njol.skript.hooks.regions.WorldGuardHook;
 import ch.njol.skript.lang.function.Function;
+import ch.njol.skript.lang.parser.ParseCache;
 import ch.njol.skript.localization.Language;
 import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.log.Verbosity;
@@ -52,6 +53,7 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -193,6 +195,20 @@ public class SkriptConfig {
 	
 	public static final Option<Boolean> keepConfigsLoaded = new Option<>("keep configs loaded", false)
 			.optional(true);
+
+	public static final Option<Boolean> parseCache = new Option<>("parse cache", false)
+			.optional(true)
+			.setter(ParseCache::setEnabled);
+
+	public static final Option<Boolean> persistentParseCache = new Option<>("persistent parse cache", false)
+			.optional(true)
+			.setter(ParseCache::setPersistent);
+
+	public static final Option<Boolean> incrementalReloads = new Option<>("incremental script reloads", false)
+			.optional(true);
+
+	public static final Option<Boolean> compileTriggers = new Option<>("compile triggers", false)
+			.optional(true);
 	
 	public static final Option<Boolean> addonSafetyChecks = new Option<>("addon safety checks", false)
 			.optional(true);
@@ -245,6 +261,22 @@ public class SkriptConfig {
 
 	public static final Option<Boolean> caseInsensitiveVariables = new Option<>("case-insensitive variables", true)
 			.setter(t -> Variables.caseInsensitiveVariables = t);
+
+	public static final Option<Boolean> lazyVariableDeserialization = new Option<>("lazy variable deserialization", false)
+			.optional(true)
+			.setter(t -> Variables.lazyDeserialization = t);
+
+	public static final Option<String> indexedListVariables = new Option<>("indexed list variables", "")
+			.optional(true)
+			.setter(t -> {
+				List<String> names = new ArrayList<>();
+				for (String name : t.split(",")) {
+					name = name.trim();
+					if (!name.isEmpty())
+						names.add(name);
+				}
+				Variables.setIndexedLists(names);
+			});
 	
 	public static final Option<Boolean> colorResetCodes = new Option<>("color codes reset formatting", true)
 			.setter(t -> {
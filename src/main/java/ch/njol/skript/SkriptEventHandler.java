@@ -20,6 +20,8 @@ package ch.njol.skript;
 
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -27,7 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Bukkit;
 import org.bukkit.event.Cancellable;
@@ -45,7 +47,6 @@ import org.eclipse.jdt.annotation.Nullable;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 
-import ch.njol.skript.lang.SkriptEvent;
 import ch.njol.skript.lang.Trigger;
 import ch.njol.skript.timings.SkriptTimings;
 import ch.njol.skript.util.Task;
@@ -91,17 +92,71 @@ public final class SkriptEventHandler {
 	private static final Multimap<Class<? extends Event>, Trigger> triggers = ArrayListMultimap.create();
 
 	/**
-	 * A utility method to get all Triggers registered under the provided Event class.
+	 * An empty array of Triggers, returned by {@link #getTriggers(Class, EventPriority)} when no Triggers match.
+	 */
+	private static final Trigger[] NO_TRIGGERS = new Trigger[0];
+
+	/**
+	 * A lazily populated dispatch index mapping a concrete Event class to the Triggers that should be run for it.
+	 * The value array is indexed by {@link EventPriority#ordinal()}.
+	 * This map is replaced (not cleared) whenever {@link #triggers} changes,
+	 *  so that a thread still computing an entry for the old state can not pollute the new index.
+	 */
+	private static volatile Map<Class<? extends Event>, Trigger[][]> triggerIndex = new ConcurrentHashMap<>();
+
+	/**
+	 * Invalidates the dispatch index. Must be called whenever {@link #triggers} is modified.
+	 */
+	private static void invalidateTriggerIndex() {
+		triggerIndex = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * A utility method to get all Triggers registered under the provided Event class for the provided priority.
+	 * The result is cached until the registered Triggers change.
+	 * @param event The event to find pairs from.
+	 * @param priority The priority the Triggers must have.
+	 * @return An array containing all Triggers registered under the provided Event class with the provided priority.
+	 *  This array is shared and must not be modified.
+	 */
+	private static Trigger[] getTriggers(Class<? extends Event> event, EventPriority priority) {
+		Map<Class<? extends Event>, Trigger[][]> index = triggerIndex;
+		Trigger[][] byPriority = index.get(event);
+		if (byPriority == null) {
+			byPriority = computeTriggers(event);
+			index.put(event, byPriority);
+		}
+		return byPriority[priority.ordinal()];
+	}
+
+	/**
+	 * Collects all Triggers registered under the provided Event class, grouped by their priority.
+	 * Triggers keep the order they were registered in.
 	 * @param event The event to find pairs from.
-	 * @return A List containing all Triggers registered under the provided Event class.
+	 * @return An array indexed by {@link EventPriority#ordinal()}, containing the matching Triggers for each priority.
 	 */
-	private static List<Trigger> getTriggers(Class<? extends Event> event) {
+	private static Trigger[][] computeTriggers(Class<? extends Event> event) {
 		HandlerList eventHandlerList = getHandlerList(event);
 		assert eventHandlerList != null; // It had one at some point so this should remain true
-		return triggers.asMap().entrySet().stream()
-				.filter(entry -> entry.getKey().isAssignableFrom(event) && getHandlerList(entry.getKey()) == eventHandlerList)
-				.flatMap(entry -> entry.getValue().stream())
-				.collect(Collectors.toList()); // forces evaluation now and prevents us from having to call getTriggers again if very high logging is enabled
+
+		EventPriority[] priorities = EventPriority.values();
+		List<List<Trigger>> grouped = new ArrayList<>(priorities.length);
+		for (int i = 0; i < priorities.length; i++)
+			grouped.add(new ArrayList<>());
+
+		for (Entry<Class<? extends Event>, Collection<Trigger>> entry : triggers.asMap().entrySet()) {
+			if (!entry.getKey().isAssignableFrom(event) || getHandlerList(entry.getKey()) != eventHandlerList)
+				continue;
+			for (Trigger trigger : entry.getValue())
+				grouped.get(trigger.getEvent().getEventPriority().ordinal()).add(trigger);
+		}
+
+		Trigger[][] byPriority = new Trigger[priorities.length][];
+		for (int i = 0; i < priorities.length; i++) {
+			List<Trigger> list = grouped.get(i);
+			byPriority[i] = list.isEmpty() ? NO_TRIGGERS : list.toArray(new Trigger[0]);
+		}
+		return byPriority;
 	}
 
 	/**
@@ -112,22 +167,31 @@ public final class SkriptEventHandler {
 	 * @param priority The priority of the Event.
 	 */
 	private static void check(Event event, EventPriority priority) {
-		List<Trigger> triggers = getTriggers(event.getClass());
-		if (triggers.isEmpty())
+		Trigger[] triggers = getTriggers(event.getClass(), priority);
+		if (triggers.length == 0)
 			return;
 
 		if (Skript.logVeryHigh()) {
 			boolean hasTrigger = false;
+			boolean needsMainThread = false;
 			for (Trigger trigger : triggers) {
-				SkriptEvent triggerEvent = trigger.getEvent();
-				if (
-					triggerEvent.getEventPriority() == priority
-					&& triggerEvent.canExecuteAsynchronously() ? triggerEvent.check(event) : Boolean.TRUE.equals(Task.callSync(() -> triggerEvent.check(event)))
-				) {
+				if (!trigger.getEvent().canExecuteAsynchronously()) {
+					needsMainThread = true;
+				} else if (trigger.getEvent().check(event)) {
 					hasTrigger = true;
 					break;
 				}
 			}
+			if (!hasTrigger && needsMainThread) {
+				// Check the remaining triggers on the main thread at once
+				hasTrigger = Boolean.TRUE.equals(Task.callSync(() -> {
+					for (Trigger trigger : triggers) {
+						if (!trigger.getEvent().canExecuteAsynchronously() && trigger.getEvent().check(event))
+							return true;
+					}
+					return false;
+				}));
+			}
 			if (!hasTrigger)
 				return;
 
@@ -143,35 +207,48 @@ public final class SkriptEventHandler {
 			return;
 		}
 
-		for (Trigger trigger : triggers) {
-			SkriptEvent triggerEvent = trigger.getEvent();
-			if (triggerEvent.getEventPriority() != priority)
+		boolean isPrimaryThread = Bukkit.isPrimaryThread();
+		int index = 0;
+		while (index < triggers.length) {
+			Trigger trigger = triggers[index];
+			if (isPrimaryThread || trigger.getEvent().canExecuteAsynchronously()) {
+				execute(trigger, event);
+				index++;
 				continue;
-
-			// these methods need to be run on whatever thread the trigger is
-			Runnable execute = () -> {
-				logTriggerStart(trigger);
-				Object timing = SkriptTimings.start(trigger.getDebugLabel());
-				trigger.execute(event);
-				SkriptTimings.stop(timing);
-				logTriggerEnd(trigger);
-			};
-
-			if (trigger.getEvent().canExecuteAsynchronously()) {
-				if (triggerEvent.check(event))
-					execute.run();
-			} else { // Ensure main thread
-				Task.callSync(() -> {
-					if (triggerEvent.check(event))
-						execute.run();
-					return null; // we don't care about a return value
-				});
 			}
+
+			// Hand all consecutive triggers that must run on the main thread over at once,
+			//  so this thread only waits for the main thread once per group instead of once per trigger
+			int start = index;
+			while (index < triggers.length && !triggers[index].getEvent().canExecuteAsynchronously())
+				index++;
+			int end = index;
+			Task.callSync(() -> {
+				for (int i = start; i < end; i++)
+					execute(triggers[i], event);
+				return null; // we don't care about a return value
+			});
 		}
 
 		logEventEnd();
 	}
 
+	/**
+	 * Checks the provided Trigger's event and executes the Trigger if the check succeeds.
+	 * Must be called on a thread the Trigger may be executed on.
+	 * @param trigger The Trigger to execute.
+	 * @param event The Event to execute the Trigger with.
+	 */
+	private static void execute(Trigger trigger, Event event) {
+		if (!trigger.getEvent().check(event))
+			return;
+		logTriggerStart(trigger);
+		Object timing = SkriptTimings.start(trigger.getDebugLabel());
+		trigger.execute(event);
+		SkriptTimings.stop(timing);
+		logTriggerEnd(trigger);
+	}
+
 	private static long startEvent;
 
 	/**
@@ -257,6 +334,7 @@ public final class SkriptEventHandler {
 			return;
 
 		triggers.put(event, trigger);
+		invalidateTriggerIndex();
 
 		EventPriority priority = trigger.getEvent().getEventPriority();
 
@@ -280,6 +358,7 @@ public final class SkriptEventHandler {
 
 			// Remove the trigger from the map
 			entryIterator.remove();
+			invalidateTriggerIndex();
 
 			// check if we can unregister the listener
 			EventPriority priority = trigger.getEvent().getEventPriority();
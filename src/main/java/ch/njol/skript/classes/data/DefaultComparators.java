@@ -71,33 +71,39 @@ public class DefaultComparators {
 	
 	public DefaultComparators() {}
 	
+	/**
+	 * The comparator of two numbers, also used directly by {@link ch.njol.skript.conditions.CondCompare}
+	 * to compare numbers without looking up a comparator.
+	 */
+	public static final Comparator<Number, Number> numberComparator = new Comparator<Number, Number>() {
+		@Override
+		public Relation compare(Number n1, Number n2) {
+			if (n1 instanceof Long && n2 instanceof Long)
+				return Relation.get(n1.longValue() - n2.longValue());
+			double d1 = n1.doubleValue(),
+				   d2 = n2.doubleValue();
+			if (Double.isNaN(d1) || Double.isNaN(d2)) {
+				return Relation.SMALLER;
+			} else if (Double.isInfinite(d1) || Double.isInfinite(d2)) {
+				return d1 > d2 ? Relation.GREATER : d1 < d2 ? Relation.SMALLER : Relation.EQUAL;
+			} else {
+				double diff = d1 - d2;
+				if (Math.abs(diff) < Skript.EPSILON)
+					return Relation.EQUAL;
+				return Relation.get(diff);
+			}
+		}
+
+		@Override
+		public boolean supportsOrdering() {
+			return true;
+		}
+	};
+	
 	static {
 		
 		// Number - Number
-		Comparators.registerComparator(Number.class, Number.class, new Comparator<Number, Number>() {
-			@Override
-			public Relation compare(Number n1, Number n2) {
-				if (n1 instanceof Long && n2 instanceof Long)
-					return Relation.get(n1.longValue() - n2.longValue());
-				Double d1 = n1.doubleValue(),
-					   d2 = n2.doubleValue();
-				if (d1.isNaN() || d2.isNaN()) {
-					return Relation.SMALLER;
-				} else if (d1.isInfinite() || d2.isInfinite()) {
-					return d1 > d2 ? Relation.GREATER : d1 < d2 ? Relation.SMALLER : Relation.EQUAL;
-				} else {
-					double diff = d1 - d2;
-					if (Math.abs(diff) < Skript.EPSILON)
-						return Relation.EQUAL;
-					return Relation.get(diff);
-				}
-			}
-
-			@Override
-			public boolean supportsOrdering() {
-				return true;
-			}
-		});
+		Comparators.registerComparator(Number.class, Number.class, numberComparator);
 		
 		// Slot - Slot
 		Comparators.registerComparator(Slot.class, Slot.class, new Comparator<Slot, Slot>() {
@@ -25,6 +25,7 @@ import org.eclipse.jdt.annotation.Nullable;
 
 import ch.njol.skript.Skript;
 import ch.njol.skript.classes.ClassInfo;
+import ch.njol.skript.classes.data.DefaultComparators;
 
 import org.skriptlang.skript.lang.comparator.Comparator;
 import org.skriptlang.skript.lang.comparator.ComparatorInfo;
@@ -348,39 +349,38 @@ public class CondCompare extends Condition {
 		return first.check(e, (Checker<Object>) o1 ->
 			second.check(e, (Checker<Object>) o2 -> {
 				if (third == null)
-					return relation.isImpliedBy(comparator != null ? comparator.compare(o1, o2) : Comparators.compare(o1, o2));
+					return relation.isImpliedBy(compare(o1, o2));
 				return third.check(e, (Checker<Object>) o3 -> {
 					boolean isBetween;
-					if (comparator != null) {
-						if (o1 instanceof Cyclical<?> && o2 instanceof Cyclical<?> && o3 instanceof Cyclical<?>) {
-							if (Relation.GREATER_OR_EQUAL.isImpliedBy(comparator.compare(o2, o3)))
-								isBetween = Relation.GREATER_OR_EQUAL.isImpliedBy(comparator.compare(o1, o2)) || Relation.SMALLER_OR_EQUAL.isImpliedBy(comparator.compare(o1, o3));
-							else
-								isBetween = Relation.GREATER_OR_EQUAL.isImpliedBy(comparator.compare(o1, o2)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(comparator.compare(o1, o3));
-						} else {
-							isBetween =
-								(Relation.GREATER_OR_EQUAL.isImpliedBy(comparator.compare(o1, o2)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(comparator.compare(o1, o3)))
-								// Check OPPOSITE (switching o2 / o3)
-								|| (Relation.GREATER_OR_EQUAL.isImpliedBy(comparator.compare(o1, o3)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(comparator.compare(o1, o2)));
-						}
+					if (o1 instanceof Cyclical<?> && o2 instanceof Cyclical<?> && o3 instanceof Cyclical<?>) {
+						if (Relation.GREATER_OR_EQUAL.isImpliedBy(compare(o2, o3)))
+							isBetween = Relation.GREATER_OR_EQUAL.isImpliedBy(compare(o1, o2)) || Relation.SMALLER_OR_EQUAL.isImpliedBy(compare(o1, o3));
+						else
+							isBetween = Relation.GREATER_OR_EQUAL.isImpliedBy(compare(o1, o2)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(compare(o1, o3));
 					} else {
-						if (o1 instanceof Cyclical<?> && o2 instanceof Cyclical<?> && o3 instanceof Cyclical<?>) {
-							if (Relation.GREATER_OR_EQUAL.isImpliedBy(Comparators.compare(o2, o3)))
-								isBetween = Relation.GREATER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o2)) || Relation.SMALLER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o3));
-							else
-								isBetween = Relation.GREATER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o2)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o3));
-						} else {
-							isBetween =
-									(Relation.GREATER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o2)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o3)))
-									// Check OPPOSITE (switching o2 / o3)
-									|| (Relation.GREATER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o3)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o2)));
-						}
+						isBetween =
+							(Relation.GREATER_OR_EQUAL.isImpliedBy(compare(o1, o2)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(compare(o1, o3)))
+							// Check OPPOSITE (switching o2 / o3)
+							|| (Relation.GREATER_OR_EQUAL.isImpliedBy(compare(o1, o3)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(compare(o1, o2)));
 					}
 					return relation == Relation.NOT_EQUAL ^ isBetween;
 				});
 			}
 		), isNegated());
 	}
+
+	/**
+	 * Compares two values with the comparator found while parsing, or with the comparator of their types otherwise.
+	 * Longs and doubles are compared most often by far, so they're compared without looking up a comparator.
+	 */
+	@SuppressWarnings("unchecked")
+	private Relation compare(Object o1, Object o2) {
+		if (comparator != null)
+			return comparator.compare(o1, o2);
+		if (o1 != o2 && (o1 instanceof Long || o1 instanceof Double) && (o2 instanceof Long || o2 instanceof Double))
+			return DefaultComparators.numberComparator.compare((Number) o1, (Number) o2);
+		return Comparators.compare(o1, o2);
+	}
 	
 	@Override
 	public String toString(final @Nullable Event e, final boolean debug) {
@@ -29,6 +29,7 @@ import ch.njol.skript.doc.Since;
 import ch.njol.skript.lang.Condition;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.Variable;
 import ch.njol.skript.lang.util.SimpleExpression;
 import org.skriptlang.skript.lang.comparator.Comparators;
 import ch.njol.util.Kleenean;
@@ -96,6 +97,10 @@ public class CondContains extends Condition {
 	public boolean check(Event e) {
 		CheckType checkType = this.checkType;
 
+		Boolean indexedResult = checkIndexed(e);
+		if (indexedResult != null)
+			return indexedResult;
+
 		Object[] containerValues = containers.getAll(e);
 
 		if (containerValues.length == 0)
@@ -157,6 +162,34 @@ public class CondContains extends Condition {
 		}
 	}
 	
+	/**
+	 * Checks an indexed list variable without getting all of its values,
+	 * see {@link Variable#containsIndexed(Event, Object)}.
+	 * Lists can only be searched this way if they only contain texts, numbers and booleans,
+	 * so the check would compare objects otherwise too.
+	 *
+	 * @return the result of the check, or {@code null} if the containers are not an indexed list that can be searched this way.
+	 */
+	@Nullable
+	private Boolean checkIndexed(Event e) {
+		if (checkType != CheckType.UNKNOWN || explicitSingle || !(containers instanceof Variable))
+			return null;
+		Variable<?> list = (Variable<?>) containers;
+		if (!list.isIndexed(e))
+			return null;
+
+		boolean[] searchable = {true};
+		boolean result = items.check(e, o1 -> {
+			Boolean contains = list.containsIndexed(e, o1);
+			if (contains == null) {
+				searchable[0] = false;
+				return false;
+			}
+			return contains;
+		}, isNegated());
+		return searchable[0] ? result : null;
+	}
+
 	@Override
 	public String toString(@Nullable Event e, boolean debug) {
 		return containers.toString(e, debug) + (isNegated() ? " doesn't contain " : " contains ") + items.toString(e, debug);
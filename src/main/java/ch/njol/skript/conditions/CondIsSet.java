@@ -30,6 +30,7 @@ import ch.njol.skript.lang.Condition;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionList;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.Variable;
 import ch.njol.util.Kleenean;
 
 /**
@@ -71,6 +72,12 @@ public class CondIsSet extends Condition {
 			return expr.getAnd();
 		}
 		assert expr.getAnd();
+		if (expr instanceof Variable && ((Variable<?>) expr).isList()) {
+			// Counting the values of a list doesn't require getting them
+			final int size = ((Variable<?>) expr).size(e, false);
+			if (size >= 0)
+				return isNegated() ^ (size != 0);
+		}
 		final Object[] all = expr.getAll(e);
 		return isNegated() ^ (all.length != 0);
 	}
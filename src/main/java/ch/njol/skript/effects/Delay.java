@@ -31,15 +31,19 @@ import ch.njol.skript.lang.Trigger;
 import ch.njol.skript.lang.TriggerItem;
 import ch.njol.skript.timings.SkriptTimings;
 import ch.njol.skript.util.Timespan;
+import ch.njol.skript.util.TimingWheel;
 import ch.njol.skript.variables.Variables;
 import ch.njol.util.Kleenean;
-import org.bukkit.Bukkit;
+import com.google.common.collect.MapMaker;
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
+import org.skriptlang.skript.lang.script.Script;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Name("Delay")
 @Description("Delays the script's execution by a given timespan. Please note that delays are not persistent, e.g. trying to create a tempban script with <code>ban player → wait 7 days → unban player</code> will not work if you restart your server anytime within these 7 days. You also have to be careful even when using small delays!")
@@ -89,8 +93,16 @@ public class Delay extends Effect {
 			
 			// Back up local variables
 			Object localVars = Variables.removeLocals(event);
-			
-			Bukkit.getScheduler().scheduleSyncDelayedTask(Skript.getInstance(), () -> {
+
+			Trigger trigger = getTrigger();
+			Script script = trigger == null ? null : trigger.getScript();
+			if (script != null)
+				PENDING.merge(script, 1, Integer::sum);
+
+			WHEEL.schedule(() -> {
+				if (script != null)
+					PENDING.computeIfPresent(script, (s, pending) -> pending == 1 ? null : pending - 1);
+
 				Skript.debug(getIndentation() + "... continuing after " + (System.nanoTime() - start) / 1_000_000_000. + "s");
 
 				// Re-set local variables
@@ -98,17 +110,14 @@ public class Delay extends Effect {
 					Variables.setLocalVariables(event, localVars);
 
 				Object timing = null; // Timings reference must be kept so that it can be stopped after TriggerItem execution
-				if (SkriptTimings.enabled()) { // getTrigger call is not free, do it only if we must
-					Trigger trigger = getTrigger();
-					if (trigger != null)
-						timing = SkriptTimings.start(trigger.getDebugLabel());
-				}
+				if (SkriptTimings.enabled() && trigger != null)
+					timing = SkriptTimings.start(trigger.getDebugLabel());
 
 				TriggerItem.walk(next, event);
 				Variables.removeLocals(event); // Clean up local vars, we may be exiting now
 
 				SkriptTimings.stop(timing); // Stop timing if it was even started
-			}, Math.max(duration.getTicks(), 1)); // Minimum delay is one tick, less than it is useless!
+			}, duration.getTicks()); // Minimum delay is one tick, less than it is useless!
 		}
 		return null;
 	}
@@ -123,8 +132,51 @@ public class Delay extends Effect {
 		return "wait for " + duration.toString(event, debug) + (event == null ? "" : "...");
 	}
 
-	private static final Set<Event> DELAYED =
-		Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+	/**
+	 * Resumes the delayed triggers, started when Skript is enabled.
+	 */
+	private static final TimingWheel WHEEL = new TimingWheel();
+
+	/**
+	 * The amount of delayed triggers waiting to be resumed, by script.
+	 */
+	private static final Map<Script, Integer> PENDING = new ConcurrentHashMap<>();
+
+	private static final Set<Event> DELAYED = Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+
+	/**
+	 * Starts resuming delayed triggers. Only meant to be called by Skript when it's enabled,
+	 * before any other tasks are scheduled, see {@link TimingWheel#start(org.bukkit.plugin.Plugin)}.
+	 */
+	public static void startResuming() {
+		WHEEL.start(Skript.getInstance());
+		Skript.closeOnDisable(() -> {
+			WHEEL.stop();
+			PENDING.clear();
+		});
+	}
+
+	/**
+	 * @return The amount of delayed triggers waiting to be resumed.
+	 */
+	public static int getPendingContinuations() {
+		return WHEEL.size();
+	}
+
+	/**
+	 * @param script The script to check.
+	 * @return The amount of delayed triggers of the given script waiting to be resumed.
+	 */
+	public static int getPendingContinuations(Script script) {
+		return PENDING.getOrDefault(script, 0);
+	}
+
+	/**
+	 * @return The amount of delayed triggers waiting to be resumed, by script.
+	 */
+	public static Map<Script, Integer> getPendingContinuationsByScript() {
+		return Collections.unmodifiableMap(new HashMap<>(PENDING));
+	}
 
 	/**
 	 * The main method for checking if the execution of {@link TriggerItem}s has been delayed.
@@ -68,6 +68,11 @@ public class EvtScript extends SkriptEvent {
 			runTrigger(trigger, new ScriptEvent());
 	}
 
+	@Override
+	public boolean isReusable() {
+		return false; // Must run whenever the script is reloaded
+	}
+
 	@Override
 	public boolean check(Event event) {
 		throw new UnsupportedOperationException();
@@ -57,7 +57,7 @@ import java.util.Map;
 		"</pre>",
 		"",
 		"Where using %size of {list::*}% will only return 3 (the first layer of indices only), while %recursive size of {list::*}% will return 6 (the entire list)",
-		"Please note that getting a list's recursive size can cause lag if the list is large, so only use this expression if you need to!"})
+		"Both sizes of a list variable are known without going through the list, so they are fast even for large lists."})
 @Examples({"message \"There are %number of all players% players online!\""})
 @Since("1.0")
 public class ExprAmount extends SimpleExpression<Long> {
@@ -99,6 +99,11 @@ public class ExprAmount extends SimpleExpression<Long> {
 		if (recursive) {
 			int currentSize = 0;
 			for (Expression<?> expr : exprs.getExpressions()) {
+				int size = ((Variable<?>) expr).size(e, true);
+				if (size >= 0) {
+					currentSize += size;
+					continue;
+				}
 				Object var = ((Variable<?>) expr).getRaw(e);
 				if (var != null) { // Should already be a map
 					currentSize += getRecursiveSize((Map<String, ?>) var);
@@ -106,9 +111,35 @@ public class ExprAmount extends SimpleExpression<Long> {
 			}
 			return new Long[]{(long) currentSize};
 		}
+		Long size = getListSizes(e);
+		if (size != null)
+			return new Long[]{size};
 		return new Long[]{(long) exprs.getArray(e).length};
 	}
 
+	/**
+	 * Counts the values of the expressions without getting them if they are all list variables,
+	 * see {@link Variable#size(Event, boolean)}.
+	 *
+	 * @return the amount of values, or {@code null} if they can't be counted this way.
+	 */
+	@Nullable
+	private Long getListSizes(Event e) {
+		Expression<?>[] expressions = exprs.getExpressions();
+		if (!exprs.getAnd() && expressions.length > 1) // Only one of them is used
+			return null;
+		long size = 0;
+		for (Expression<?> expr : expressions) {
+			if (!(expr instanceof Variable<?>) || !((Variable<?>) expr).isList())
+				return null;
+			int exprSize = ((Variable<?>) expr).size(e, false);
+			if (exprSize < 0)
+				return null;
+			size += exprSize;
+		}
+		return size;
+	}
+
 	@SuppressWarnings("unchecked")
 	private static int getRecursiveSize(Map<String, ?> map) {
 		int count = 0;
@@ -29,6 +29,7 @@ import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.Literal;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.parser.ParserInstance;
 import ch.njol.skript.lang.util.SimpleExpression;
 import org.skriptlang.skript.lang.converter.Converters;
 import ch.njol.skript.util.LiteralUtils;
@@ -56,12 +57,25 @@ import java.util.regex.Pattern;
 @SuppressWarnings({"null", "unchecked"})
 public class ExprFilter extends SimpleExpression<Object> {
 
-	@Nullable
-	private static ExprFilter parsing;
-
 	static {
 		Skript.registerExpression(ExprFilter.class, Object.class, ExpressionType.COMBINED,
 				"%objects% (where|that match) \\[<.+>\\]");
+		ParserInstance.registerData(FilterData.class, FilterData::new);
+	}
+
+	/**
+	 * Holds the filter whose condition is being parsed, per parser instance,
+	 * as triggers may be parsed by multiple threads at once.
+	 */
+	public static class FilterData extends ParserInstance.Data {
+
+		@Nullable
+		private ExprFilter parsing;
+
+		public FilterData(ParserInstance parserInstance) {
+			super(parserInstance);
+		}
+
 	}
 
 	private Object current;
@@ -72,20 +86,22 @@ public class ExprFilter extends SimpleExpression<Object> {
 
 	@Nullable
 	public static ExprFilter getParsing() {
-		return parsing;
+		return ParserInstance.get().getData(FilterData.class).parsing;
 	}
 
 	@Override
 	public boolean init(Expression<?>[] exprs, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+		FilterData data = getParser().getData(FilterData.class);
+		ExprFilter previous = data.parsing;
 		try {
-			parsing = this;
+			data.parsing = this;
 			objects = LiteralUtils.defendExpression(exprs[0]);
 			if (objects.isSingle())
 				return false;
 			rawCond = parseResult.regexes.get(0).group();
 			condition = Condition.parse(rawCond, "Can't understand this condition: " + rawCond);
 		} finally {
-			parsing = null;
+			data.parsing = previous;
 		}
 		return condition != null && LiteralUtils.canInitSafely(objects);
 	}
@@ -29,10 +29,15 @@ import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.lang.Variable;
 import ch.njol.skript.lang.util.SimpleExpression;
 import ch.njol.skript.util.LiteralUtils;
+import ch.njol.skript.variables.Variables;
 import ch.njol.util.Kleenean;
+import ch.njol.util.Pair;
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -92,13 +97,11 @@ public class ExprIndices extends SimpleExpression<String> {
 	@Override
 	@SuppressWarnings({"unchecked", "ConstantConditions"})
 	protected String[] get(Event e) {
-		Map<String, Object> variable = (Map<String, Object>) list.getRaw(e);
-
-		if (variable == null) {
-			return null;
-		}
-
 		if (sort) {
+			Map<String, Object> variable = (Map<String, Object>) list.getRaw(e);
+			if (variable == null)
+				return null;
+
 			int direction = descending ? -1 : 1;
 			return variable.entrySet().stream()
 				.sorted((a, b) -> ExprSortedList.compare(a.getValue(), b.getValue()) * direction)
@@ -106,7 +109,31 @@ public class ExprIndices extends SimpleExpression<String> {
 				.toArray(String[]::new);
 		}
 
-		return variable.keySet().toArray(new String[0]);
+		List<String> indices = new ArrayList<>();
+		Iterator<? extends String> iterator = iterator(e);
+		assert iterator != null;
+		iterator.forEachRemaining(indices::add);
+		return indices.toArray(new String[0]);
+	}
+
+	@Override
+	@Nullable
+	public Iterator<? extends String> iterator(Event e) {
+		if (sort)
+			return super.iterator(e);
+		// Walks the list instead of copying its indices first
+		Iterator<Pair<String, Object>> variables = Variables.getListIterator(list.getName().toString(e), e, list.isLocal());
+		return new Iterator<String>() {
+			@Override
+			public boolean hasNext() {
+				return variables.hasNext();
+			}
+
+			@Override
+			public String next() {
+				return variables.next().getFirst();
+			}
+		};
 	}
 
 	@Override
@@ -39,7 +39,6 @@ import ch.njol.skript.log.ParseLogHandler;
 import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.patterns.MalformedPatternException;
 import ch.njol.skript.patterns.MatchResult;
-import ch.njol.skript.patterns.PatternCompiler;
 import ch.njol.skript.patterns.SkriptPattern;
 import ch.njol.util.Kleenean;
 import ch.njol.util.NonNullPair;
@@ -133,7 +132,7 @@ public class ExprParse extends SimpleExpression<Object> {
 
 			// Compile the SkriptPattern
 			try {
-				this.pattern = PatternCompiler.compile(pattern);
+				this.pattern = SkriptParser.compilePattern(pattern);
 			} catch (MalformedPatternException exception) {
 				// Some checks already done by validatePattern above, but just making sure
 				Skript.error("Malformed pattern: " + exception.getMessage());
@@ -38,6 +38,7 @@ import ch.njol.skript.lang.ExpressionList;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.Literal;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.Variable;
 import ch.njol.skript.lang.util.SimpleExpression;
 import ch.njol.skript.util.LiteralUtils;
 import ch.njol.util.Kleenean;
@@ -83,6 +84,15 @@ public class ExprRandom extends SimpleExpression<Object> {
 
 	@Override
 	protected Object[] get(Event event) {
+		if (expr instanceof Variable<?> && ((Variable<?>) expr).isList()) {
+			// Large lists don't have to be copied to choose one of their values
+			Object random = ((Variable<?>) expr).getRandom(event);
+			if (random != null) {
+				Object[] one = (Object[]) Array.newInstance(expr.getReturnType(), 1);
+				one[0] = random;
+				return one;
+			}
+		}
 		Object[] set = expr.getAll(event);
 		if (set.length <= 1)
 			return set;
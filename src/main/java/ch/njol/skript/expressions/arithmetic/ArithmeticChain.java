@@ -93,6 +93,9 @@ public class ArithmeticChain<L, R, T> implements ArithmeticGettable<T> {
 		if (operationInfo == null)
 			return null;
 
+		if (isNumberOperation(operationInfo) && isLongOrDouble(left) && isLongOrDouble(right))
+			return (T) calculateNumbers((Number) left, (Number) right);
+
 		left = left != null ? left : Arithmetics.getDefaultValue(operationInfo.getLeft());
 		if (left == null)
 			return null;
@@ -103,6 +106,52 @@ public class ArithmeticChain<L, R, T> implements ArithmeticGettable<T> {
 		return ((Operation<L, R, T>) operationInfo.getOperation()).calculate(left, right);
 	}
 
+	private static boolean isNumberOperation(OperationInfo<?, ?, ?> info) {
+		return info.getLeft() == Number.class && info.getRight() == Number.class;
+	}
+
+	private static boolean isLongOrDouble(@Nullable Object object) {
+		return object instanceof Long || object instanceof Double;
+	}
+
+	/**
+	 * Calculates the same as the number operations registered in {@link ch.njol.skript.classes.data.DefaultOperations},
+	 * without looking up and calling the operation, as numbers are the most common operands by far.
+	 */
+	private Number calculateNumbers(Number left, Number right) {
+		if (left instanceof Long && right instanceof Long) {
+			long l = left.longValue(), r = right.longValue();
+			switch (operator) {
+				case ADDITION:
+					return l + r;
+				case SUBTRACTION:
+					return l - r;
+				case MULTIPLICATION:
+					return l * r;
+				case DIVISION:
+					return (double) l / r;
+				case EXPONENTIATION:
+					if (r >= 0)
+						return (long) Math.pow(l, r);
+					return Math.pow(l, r);
+			}
+		}
+		double l = left.doubleValue(), r = right.doubleValue();
+		switch (operator) {
+			case ADDITION:
+				return l + r;
+			case SUBTRACTION:
+				return l - r;
+			case MULTIPLICATION:
+				return l * r;
+			case DIVISION:
+				return l / r;
+			case EXPONENTIATION:
+				return Math.pow(l, r);
+		}
+		throw new IllegalStateException("Unknown operator " + operator);
+	}
+
 	@Nullable
 	@SuppressWarnings("unchecked")
 	private OperationInfo<L, R, T> lookupOperationInfo(Class<?> anchor, Function<OperationInfo<?, ?, ?>, Class<?>> anchorFunction) {
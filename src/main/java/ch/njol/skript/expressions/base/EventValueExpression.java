@@ -41,6 +41,7 @@ import ch.njol.skript.registrations.Classes;
 import ch.njol.skript.registrations.EventValues;
 import ch.njol.skript.util.Getter;
 import ch.njol.skript.util.Utils;
+import ch.njol.util.coll.CollectionUtils;
 import ch.njol.util.Kleenean;
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
@@ -171,7 +172,7 @@ public class EventValueExpression<T> extends SimpleExpression<T> implements Defa
 	protected T[] get(Event event) {
 		T value = getValue(event);
 		if (value == null)
-			return (T[]) Array.newInstance(componentType, 0);
+			return (T[]) CollectionUtils.emptyArray(componentType);
 		if (single) {
 			T[] one = (T[]) Array.newInstance(type, 1);
 			one[0] = value;
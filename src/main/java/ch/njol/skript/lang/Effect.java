@@ -72,7 +72,7 @@ public abstract class Effect extends Statement {
 			}
 			log.clear();
 
-			Effect effect = (Effect) SkriptParser.parse(input, (Iterator) Skript.getEffects().iterator(), defaultError);
+			Effect effect = (Effect) SkriptParser.parse(input, (Iterator) Skript.getEffects().iterator(), "effect", defaultError);
 			if (effect != null) {
 				log.printLog();
 				return effect;
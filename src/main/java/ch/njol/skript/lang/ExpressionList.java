@@ -93,7 +93,7 @@ public class ExpressionList<T> implements Expression<T> {
 		if (and)
 			return getAll(event);
 		Expression<? extends T> expression = CollectionUtils.getRandom(expressions);
-		return expression != null ? expression.getArray(event) : (T[]) Array.newInstance(returnType, 0);
+		return expression != null ? expression.getArray(event) : CollectionUtils.emptyArray(returnType);
 	}
 
 	@Override
@@ -156,6 +156,15 @@ public abstract class SkriptEvent extends Structure {
 		super.postUnload();
 	}
 
+	/**
+	 * Events may be kept loaded by default, as unchanged triggers don't have to be registered again.
+	 * Override this method if the event should do something whenever its script is reloaded.
+	 */
+	@Override
+	public boolean isReusable() {
+		return true;
+	}
+
 	@Override
 	public Priority getPriority() {
 		return PRIORITY;
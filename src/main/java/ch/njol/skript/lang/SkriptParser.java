@@ -30,6 +30,7 @@ import ch.njol.skript.expressions.ExprParse;
 import ch.njol.skript.lang.function.ExprFunctionCall;
 import ch.njol.skript.lang.function.FunctionReference;
 import ch.njol.skript.lang.function.Functions;
+import ch.njol.skript.lang.parser.ParseCache;
 import ch.njol.skript.lang.parser.ParserInstance;
 import ch.njol.skript.lang.util.SimpleLiteral;
 import ch.njol.skript.localization.Language;
@@ -47,6 +48,8 @@ import ch.njol.util.Kleenean;
 import ch.njol.util.NonNullPair;
 import ch.njol.util.StringUtils;
 import ch.njol.util.coll.CollectionUtils;
+import ch.njol.util.coll.LRUCache;
+import com.google.common.collect.Iterators;
 import com.google.common.primitives.Booleans;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.eclipse.jdt.annotation.Nullable;
@@ -55,13 +58,10 @@ import org.skriptlang.skript.lang.script.ScriptWarning;
 
 import java.util.ArrayList;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -86,6 +86,12 @@ public class SkriptParser {
 
 	public final ParseContext context;
 
+	/**
+	 * {@link #expr} in lower case, used to rule out patterns by their keywords.
+	 */
+	@Nullable
+	private String lowerCaseExpr;
+
 	public SkriptParser(String expr) {
 		this(expr, ALL_FLAGS);
 	}
@@ -164,6 +170,21 @@ public class SkriptParser {
 	 */
 	@Nullable
 	public static <T extends SyntaxElement> T parse(String expr, Iterator<? extends SyntaxElementInfo<T>> source, @Nullable String defaultError) {
+		return parse(expr, source, null, defaultError);
+	}
+
+	/**
+	 * Parses a string as one of the given syntax elements.
+	 * If a cache kind is given and the {@link ParseCache} is enabled,
+	 * the syntax element and pattern the same string was parsed as before are tried first.
+	 * <p>
+	 * Can print an error.
+	 *
+	 * @param cacheKind identifies the given syntax elements in the {@link ParseCache},
+	 *                     or {@code null} to not use the cache.
+	 */
+	@Nullable
+	public static <T extends SyntaxElement> T parse(String expr, Iterator<? extends SyntaxElementInfo<T>> source, @Nullable String cacheKind, @Nullable String defaultError) {
 		expr = "" + expr.trim();
 		if (expr.isEmpty()) {
 			Skript.error(defaultError);
@@ -171,7 +192,7 @@ public class SkriptParser {
 		}
 		ParseLogHandler log = SkriptLogger.startParseLogHandler();
 		try {
-			T element = new SkriptParser(expr).parse(source);
+			T element = new SkriptParser(expr).parse(source, cacheKind);
 			if (element != null) {
 				log.printLog();
 				return element;
@@ -213,61 +234,49 @@ public class SkriptParser {
 
 	@Nullable
 	private <T extends SyntaxElement> T parse(Iterator<? extends SyntaxElementInfo<? extends T>> source) {
+		return parse(source, null);
+	}
+
+	@Nullable
+	private <T extends SyntaxElement> T parse(Iterator<? extends SyntaxElementInfo<? extends T>> source, @Nullable String cacheKind) {
 		ParseLogHandler log = SkriptLogger.startParseLogHandler();
 		try {
-			while (source.hasNext()) {
-				SyntaxElementInfo<? extends T> info = source.next();
-				patternsLoop: for (int patternIndex = 0; patternIndex < info.patterns.length; patternIndex++) {
-					log.clear();
-					try {
-						String pattern = info.patterns[patternIndex];
-						assert pattern != null;
-						ParseResult parseResult;
-						try {
-							parseResult = parse_i(pattern);
-						} catch (MalformedPatternException e) {
-							String message = "pattern compiling exception, element class: " + info.getElementClass().getName();
-							try {
-								JavaPlugin providingPlugin = JavaPlugin.getProvidingPlugin(info.getElementClass());
-								message += " (provided by " + providingPlugin.getName() + ")";
-							} catch (IllegalArgumentException | IllegalStateException ignored) {}
-							throw new RuntimeException(message, e);
-
-						}
-						if (parseResult != null) {
-							int startIndex = -1;
-							for (int i = 0; (startIndex = nextUnescaped(pattern, '%', startIndex + 1)) != -1; i++) {
-								int endIndex = nextUnescaped(pattern, '%', startIndex + 1);
-								if (parseResult.exprs[i] == null) {
-									String name = pattern.substring(startIndex + 1, endIndex);
-									if (!name.startsWith("-")) {
-										ExprInfo exprInfo = getExprInfo(name);
-										DefaultExpression<?> expr = exprInfo.classes[0].getDefaultExpression();
-										if (expr == null)
-											throw new SkriptAPIException("The class '" + exprInfo.classes[0].getCodeName() + "' does not provide a default expression. Either allow null (with %-" + exprInfo.classes[0].getCodeName() + "%) or make it mandatory [pattern: " + info.patterns[patternIndex] + "]");
-										if (!(expr instanceof Literal) && (exprInfo.flagMask & PARSE_EXPRESSIONS) == 0)
-											throw new SkriptAPIException("The default expression of '" + exprInfo.classes[0].getCodeName() + "' is not a literal. Either allow null (with %-*" + exprInfo.classes[0].getCodeName() + "%) or make it mandatory [pattern: " + info.patterns[patternIndex] + "]");
-										if (expr instanceof Literal && (exprInfo.flagMask & PARSE_LITERALS) == 0)
-											throw new SkriptAPIException("The default expression of '" + exprInfo.classes[0].getCodeName() + "' is a literal. Either allow null (with %-~" + exprInfo.classes[0].getCodeName() + "%) or make it mandatory [pattern: " + info.patterns[patternIndex] + "]");
-										if (!exprInfo.isPlural[0] && !expr.isSingle())
-											throw new SkriptAPIException("The default expression of '" + exprInfo.classes[0].getCodeName() + "' is not a single-element expression. Change your pattern to allow multiple elements or make the expression mandatory [pattern: " + info.patterns[patternIndex] + "]");
-										if (exprInfo.time != 0 && !expr.setTime(exprInfo.time))
-											throw new SkriptAPIException("The default expression of '" + exprInfo.classes[0].getCodeName() + "' does not have distinct time states. [pattern: " + info.patterns[patternIndex] + "]");
-										if (!expr.init())
-											continue patternsLoop;
-										parseResult.exprs[i] = expr;
-									}
-								}
-								startIndex = endIndex;
-							}
-							T element = info.getElementClass().newInstance();
-							if (element.init(parseResult.exprs, patternIndex, getParser().getHasDelayBefore(), parseResult)) {
+			String cacheKey = cacheKind != null && ParseCache.isEnabled() ? ParseCache.getKey(cacheKind, expr) : null;
+			ParseCache.Hint hint = cacheKey != null ? ParseCache.get(cacheKey) : null;
+			if (hint != null) {
+				// Skip to the element this was parsed as before, keeping the skipped ones in case it doesn't match anymore.
+				// The hint is only taken if no pattern tried before it could match, so the same syntax wins as without it.
+				List<SyntaxElementInfo<? extends T>> skipped = new ArrayList<>();
+				while (source.hasNext()) {
+					SyntaxElementInfo<? extends T> info = source.next();
+					skipped.add(info);
+					if (hint.matches(info)) {
+						if (!mayMatch(info, hint.getPatternIndex())) {
+							log.clear();
+							T element = parse(info, hint.getPatternIndex());
+							if (element != null) {
 								log.printLog();
 								return element;
 							}
 						}
-					} catch (InstantiationException | IllegalAccessException e) {
-						assert false;
+						break;
+					}
+					if (mayMatch(info, info.patterns.length))
+						break;
+				}
+				source = Iterators.concat(skipped.iterator(), source);
+			}
+
+			while (source.hasNext()) {
+				SyntaxElementInfo<? extends T> info = source.next();
+				for (int patternIndex = 0; patternIndex < info.patterns.length; patternIndex++) {
+					log.clear();
+					T element = parse(info, patternIndex);
+					if (element != null) {
+						if (cacheKey != null)
+							ParseCache.put(cacheKey, info, patternIndex);
+						log.printLog();
+						return element;
 					}
 				}
 			}
@@ -278,6 +287,89 @@ public class SkriptParser {
 		}
 	}
 
+	/**
+	 * Checks whether this parser's string may match any of the first patterns of the given syntax element,
+	 * see {@link SkriptPattern#mayMatch(String)}.
+	 *
+	 * @param info the syntax element.
+	 * @param patternCount the amount of patterns to check, starting at the first one.
+	 * @return whether any of these patterns may match.
+	 */
+	private boolean mayMatch(SyntaxElementInfo<?> info, int patternCount) {
+		String lowerCaseExpr = getLowerCaseExpr();
+		for (int patternIndex = 0; patternIndex < patternCount; patternIndex++) {
+			if (getCompiledPattern(info, patternIndex).mayMatch(lowerCaseExpr))
+				return true;
+		}
+		return false;
+	}
+
+	private static SkriptPattern getCompiledPattern(SyntaxElementInfo<?> info, int patternIndex) {
+		try {
+			return info.getCompiledPattern(patternIndex);
+		} catch (MalformedPatternException e) {
+			String message = "pattern compiling exception, element class: " + info.getElementClass().getName();
+			try {
+				JavaPlugin providingPlugin = JavaPlugin.getProvidingPlugin(info.getElementClass());
+				message += " (provided by " + providingPlugin.getName() + ")";
+			} catch (IllegalArgumentException | IllegalStateException ignored) {}
+			throw new RuntimeException(message, e);
+		}
+	}
+
+	/**
+	 * Attempts to parse this parser's string as the given syntax element using one of its patterns.
+	 *
+	 * @param info the syntax element.
+	 * @param patternIndex the index of the pattern to use.
+	 * @return the parsed syntax element, or {@code null} if the pattern doesn't match or the element failed to initialise.
+	 */
+	@Nullable
+	private <T extends SyntaxElement> T parse(SyntaxElementInfo<? extends T> info, int patternIndex) {
+		try {
+			String pattern = info.patterns[patternIndex];
+			assert pattern != null;
+			SkriptPattern skriptPattern = getCompiledPattern(info, patternIndex);
+			// Most patterns can be ruled out by their keywords, without attempting to match them
+			if (!skriptPattern.mayMatch(getLowerCaseExpr()))
+				return null;
+			ParseResult parseResult = parse_i(skriptPattern);
+			if (parseResult != null) {
+				int startIndex = -1;
+				for (int i = 0; (startIndex = nextUnescaped(pattern, '%', startIndex + 1)) != -1; i++) {
+					int endIndex = nextUnescaped(pattern, '%', startIndex + 1);
+					if (parseResult.exprs[i] == null) {
+						String name = pattern.substring(startIndex + 1, endIndex);
+						if (!name.startsWith("-")) {
+							ExprInfo exprInfo = getExprInfo(name);
+							DefaultExpression<?> expr = exprInfo.classes[0].getDefaultExpression();
+							if (expr == null)
+								throw new SkriptAPIException("The class '" + exprInfo.classes[0].getCodeName() + "' does not provide a default expression. Either allow null (with %-" + exprInfo.classes[0].getCodeName() + "%) or make it mandatory [pattern: " + info.patterns[patternIndex] + "]");
+							if (!(expr instanceof Literal) && (exprInfo.flagMask & PARSE_EXPRESSIONS) == 0)
+								throw new SkriptAPIException("The default expression of '" + exprInfo.classes[0].getCodeName() + "' is not a literal. Either allow null (with %-*" + exprInfo.classes[0].getCodeName() + "%) or make it mandatory [pattern: " + info.patterns[patternIndex] + "]");
+							if (expr instanceof Literal && (exprInfo.flagMask & PARSE_LITERALS) == 0)
+								throw new SkriptAPIException("The default expression of '" + exprInfo.classes[0].getCodeName() + "' is a literal. Either allow null (with %-~" + exprInfo.classes[0].getCodeName() + "%) or make it mandatory [pattern: " + info.patterns[patternIndex] + "]");
+							if (!exprInfo.isPlural[0] && !expr.isSingle())
+								throw new SkriptAPIException("The default expression of '" + exprInfo.classes[0].getCodeName() + "' is not a single-element expression. Change your pattern to allow multiple elements or make the expression mandatory [pattern: " + info.patterns[patternIndex] + "]");
+							if (exprInfo.time != 0 && !expr.setTime(exprInfo.time))
+								throw new SkriptAPIException("The default expression of '" + exprInfo.classes[0].getCodeName() + "' does not have distinct time states. [pattern: " + info.patterns[patternIndex] + "]");
+							if (!expr.init())
+								return null;
+							parseResult.exprs[i] = expr;
+						}
+					}
+					startIndex = endIndex;
+				}
+				T element = info.getElementClass().newInstance();
+				if (element.init(parseResult.exprs, patternIndex, getParser().getHasDelayBefore(), parseResult))
+					return element;
+			}
+		} catch (InstantiationException | IllegalAccessException e) {
+			assert false;
+		}
+		return null;
+	}
+
 	private static final Pattern VARIABLE_PATTERN = Pattern.compile("((the )?var(iable)? )?\\{.+\\}", Pattern.CASE_INSENSITIVE);
 
 	/**
@@ -312,11 +404,24 @@ public class SkriptParser {
 		if (expr.startsWith("\"") && expr.length() != 1 && nextQuote(expr, 1) == expr.length() - 1) {
 			return VariableString.newInstance("" + expr.substring(1, expr.length() - 1));
 		} else {
-			return (Expression<?>) parse(expr, (Iterator) Skript.getExpressions(types), null);
+			return (Expression<?>) parse(expr, (Iterator) Skript.getExpressions(types), getCacheKind(types), null);
 		}
 	}
 
 
+	/**
+	 * @return the {@link ParseCache} kind for expressions of the given types, or {@code null} if the cache is disabled.
+	 */
+	@Nullable
+	private static String getCacheKind(Class<?>[] types) {
+		if (!ParseCache.isEnabled())
+			return null;
+		StringBuilder kind = new StringBuilder("expression");
+		for (Class<?> type : types)
+			kind.append(':').append(type.getName());
+		return kind.toString();
+	}
+
 	@Nullable
 	@SuppressWarnings({"unchecked", "rawtypes"})
 	private <T> Expression<? extends T> parseSingleExpr(boolean allowUnparsedLiteral, @Nullable LogEntry error, Class<? extends T>... types) {
@@ -1247,11 +1352,44 @@ public class SkriptParser {
 		return -1;
 	}
 
-	private static final Map<String, SkriptPattern> patterns = new ConcurrentHashMap<>();
+	/**
+	 * Compiled patterns, bounded as patterns may also be compiled while scripts are running
+	 * (e.g. by {@link #parse(String, String)}).
+	 */
+	private static final LRUCache<String, SkriptPattern> patterns = new LRUCache<>(8192);
+
+	/**
+	 * Compiles the given pattern, or returns the already compiled pattern if it has been compiled recently.
+	 *
+	 * @throws MalformedPatternException when the given pattern is malformed.
+	 */
+	public static SkriptPattern compilePattern(String pattern) throws MalformedPatternException {
+		return patterns.computeIfAbsent(pattern, PatternCompiler::compile);
+	}
+
+	/**
+	 * @return The size and hit/miss statistics of the caches used while parsing.
+	 */
+	public static String getCacheStatistics() {
+		return "patterns: " + patterns + "; expression infos: " + exprInfoCache;
+	}
+
+	private String getLowerCaseExpr() {
+		String lowerCaseExpr = this.lowerCaseExpr;
+		if (lowerCaseExpr == null) {
+			lowerCaseExpr = expr.toLowerCase(Locale.ENGLISH);
+			this.lowerCaseExpr = lowerCaseExpr;
+		}
+		return lowerCaseExpr;
+	}
 
 	@Nullable
 	private ParseResult parse_i(String pattern) {
-		SkriptPattern skriptPattern = patterns.computeIfAbsent(pattern, PatternCompiler::compile);
+		return parse_i(compilePattern(pattern));
+	}
+
+	@Nullable
+	private ParseResult parse_i(SkriptPattern skriptPattern) {
 		ch.njol.skript.patterns.MatchResult matchResult = skriptPattern.match(expr, flags, context);
 		if (matchResult == null)
 			return null;
@@ -1368,16 +1506,10 @@ public class SkriptParser {
 		public int time = 0;
 	}
 
-	private static final Map<String,ExprInfo> exprInfoCache = new HashMap<>();
+	private static final LRUCache<String, ExprInfo> exprInfoCache = new LRUCache<>(4096);
 
 	private static ExprInfo getExprInfo(String string) throws IllegalArgumentException, SkriptAPIException {
-		ExprInfo exprInfo = exprInfoCache.get(string);
-		if (exprInfo == null) {
-			exprInfo = createExprInfo(string);
-			exprInfoCache.put(string, exprInfo);
-		}
-
-		return exprInfo;
+		return exprInfoCache.computeIfAbsent(string, SkriptParser::createExprInfo);
 	}
 
 	private static ExprInfo createExprInfo(String string) throws IllegalArgumentException, SkriptAPIException {
@@ -18,6 +18,9 @@
  */
 package ch.njol.skript.lang;
 
+import ch.njol.skript.patterns.MalformedPatternException;
+import ch.njol.skript.patterns.SkriptPattern;
+
 import java.util.Arrays;
 
 /**
@@ -31,8 +34,14 @@ public class SyntaxElementInfo<E extends SyntaxElement> {
 	public final String[] patterns;
 	public final String originClassPath;
 
+	/**
+	 * The compiled {@link #patterns}, each compiled once it is first used for parsing.
+	 */
+	private final SkriptPattern[] compiledPatterns;
+
 	public SyntaxElementInfo(String[] patterns, Class<E> elementClass, String originClassPath) throws IllegalArgumentException {
 		this.patterns = patterns;
+		this.compiledPatterns = new SkriptPattern[patterns.length];
 		this.elementClass = elementClass;
 		this.originClassPath = originClassPath;
 		try {
@@ -68,4 +77,20 @@ public class SyntaxElementInfo<E extends SyntaxElement> {
 	public String getOriginClassPath() {
 		return originClassPath;
 	}
+
+	/**
+	 * Get a compiled pattern of this syntax element, compiling it if it's used for the first time.
+	 * @param index The index of the pattern
+	 * @return The compiled pattern
+	 * @throws MalformedPatternException If the pattern is malformed
+	 */
+	public SkriptPattern getCompiledPattern(int index) throws MalformedPatternException {
+		SkriptPattern pattern = compiledPatterns[index];
+		if (pattern == null) {
+			// Compiling a pattern twice when parsing in parallel is harmless
+			pattern = SkriptParser.compilePattern(patterns[index]);
+			compiledPatterns[index] = pattern;
+		}
+		return pattern;
+	}
 }
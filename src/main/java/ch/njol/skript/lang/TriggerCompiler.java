@@ -0,0 +1,179 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.lang;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
+import org.bukkit.event.Event;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Combines consecutive trigger items into a single {@link MethodHandle}, see {@link SkriptConfig#compileTriggers}.
+ * <p>
+ * Only items that don't override {@link TriggerItem#walk(Event)} (e.g. effects and conditions) are combined,
+ * since the item to run after them only depends on whether {@link TriggerItem#run(Event)} succeeded.
+ * A handle runs the items until one of them fails, like {@link TriggerItem#walk(TriggerItem, Event)} would,
+ * but as a chain of method handles that the JIT compiler can inline instead of a loop of virtual calls.
+ * Sections and items with their own control flow (e.g. delays) are still interpreted, and end a combined run.
+ */
+final class TriggerCompiler {
+
+	private TriggerCompiler() {}
+
+	/**
+	 * Runs shorter than this are not worth combining.
+	 */
+	private static final int MIN_RUN_LENGTH = 2;
+
+	/**
+	 * Longer runs are split, as the JIT compiler doesn't inline arbitrarily deep chains of handles.
+	 */
+	private static final int MAX_RUN_LENGTH = 32;
+
+	/**
+	 * {@link TriggerItem#run(Event)}, of type {@code (TriggerItem, Event)boolean}.
+	 */
+	private static final MethodHandle RUN;
+
+	/**
+	 * Always returns {@code false}, of type {@code (Event)boolean}.
+	 */
+	private static final MethodHandle FAIL;
+
+	static {
+		try {
+			RUN = MethodHandles.lookup().findVirtual(TriggerItem.class, "run", MethodType.methodType(boolean.class, Event.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+		FAIL = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, false), 0, Event.class);
+	}
+
+	/**
+	 * Whether the items of a class may be combined, i.e. whether it doesn't override {@link TriggerItem#walk(Event)}.
+	 */
+	private static final ClassValue<Boolean> COMPILABLE = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			for (Class<?> c = type; c != TriggerItem.class && c != null; c = c.getSuperclass()) {
+				try {
+					c.getDeclaredMethod("walk", Event.class);
+					return false;
+				} catch (NoSuchMethodException ignored) {}
+			}
+			return true;
+		}
+	};
+
+	/**
+	 * A run of combined items, set as {@link TriggerItem#compiled} of its first item.
+	 */
+	static final class CompiledRun {
+
+		/**
+		 * Runs the items, of type {@code (Event)boolean}.
+		 * Returns {@code false} as soon as an item fails.
+		 */
+		private final MethodHandle handle;
+
+		private final TriggerItem last;
+
+		private CompiledRun(MethodHandle handle, TriggerItem last) {
+			this.handle = handle;
+			this.last = last;
+		}
+
+		/**
+		 * Runs the items of this run, like walking them one by one starting at the given first item.
+		 *
+		 * @param first the first item of this run.
+		 * @param event the event.
+		 * @return the next item to walk.
+		 */
+		@Nullable
+		TriggerItem walk(TriggerItem first, Event event) {
+			// Items are only debugged when they are walked one by one
+			if (Skript.debug())
+				return first.walk(event);
+
+			boolean completed;
+			try {
+				completed = (boolean) handle.invokeExact(event);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw new RuntimeException(t);
+			}
+			if (completed)
+				return last.getNext();
+			// The items of a run have the same parent
+			TriggerSection parent = first.getParent();
+			return parent == null ? null : parent.getNext();
+		}
+
+	}
+
+	/**
+	 * Combines the consecutive items of the given section and of all sections in it.
+	 *
+	 * @param section the section, usually a {@link Trigger}.
+	 */
+	static void compile(TriggerSection section) {
+		List<TriggerItem> run = new ArrayList<>();
+		TriggerItem item = section.first;
+		while (item != null) {
+			if (item instanceof TriggerSection)
+				compile((TriggerSection) item);
+
+			if (COMPILABLE.get(item.getClass())) {
+				run.add(item);
+				if (run.size() == MAX_RUN_LENGTH)
+					finish(run);
+			} else {
+				finish(run);
+			}
+
+			if (item == section.last)
+				break;
+			item = item.getNext();
+		}
+		finish(run);
+	}
+
+	/**
+	 * Combines the given run of items, and clears it.
+	 */
+	private static void finish(List<TriggerItem> run) {
+		if (run.size() >= MIN_RUN_LENGTH) {
+			TriggerItem last = run.get(run.size() - 1);
+			MethodHandle handle = RUN.bindTo(last);
+			for (int i = run.size() - 2; i >= 0; i--)
+				handle = MethodHandles.guardWithTest(RUN.bindTo(run.get(i)), handle, FAIL);
+			run.get(0).compiled = new CompiledRun(handle, last);
+		}
+		run.clear();
+	}
+
+}
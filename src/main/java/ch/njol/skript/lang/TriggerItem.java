@@ -19,6 +19,7 @@
 package ch.njol.skript.lang;
 
 import ch.njol.skript.Skript;
+import ch.njol.skript.timings.SkriptProfiler;
 import ch.njol.skript.util.SkriptColor;
 import ch.njol.util.StringUtils;
 import org.bukkit.event.Event;
@@ -26,6 +27,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.skriptlang.skript.lang.script.Script;
 
 import java.io.File;
+import java.util.function.UnaryOperator;
 
 /**
  * Represents a trigger item, i.e. a trigger section, a condition or an effect.
@@ -41,6 +43,13 @@ public abstract class TriggerItem implements Debuggable {
 	protected TriggerSection parent = null;
 	@Nullable
 	private TriggerItem next = null;
+	private int line = -1; // -1 is default: it means there is no line number available
+
+	/**
+	 * The run of items starting at this item, if it has been compiled by {@link TriggerCompiler}.
+	 */
+	@Nullable
+	TriggerCompiler.CompiledRun compiled = null;
 
 	protected TriggerItem() {}
 
@@ -84,8 +93,21 @@ public abstract class TriggerItem implements Debuggable {
 	public static boolean walk(TriggerItem start, Event event) {
 		TriggerItem triggerItem = start;
 		try {
-			while (triggerItem != null)
-				triggerItem = triggerItem.walk(event);
+			if (SkriptProfiler.isRunning()) {
+				UnaryOperator<TriggerItem> walker = item -> item.walk(event);
+				SkriptProfiler.enter(start);
+				try {
+					while (triggerItem != null)
+						triggerItem = SkriptProfiler.walk(triggerItem, walker);
+				} finally {
+					SkriptProfiler.exit();
+				}
+			} else {
+				while (triggerItem != null) {
+					TriggerCompiler.CompiledRun compiled = triggerItem.compiled;
+					triggerItem = compiled == null ? triggerItem.walk(event) : compiled.walk(triggerItem, event);
+				}
+			}
 
 			return true;
 		} catch (StackOverflowError err) {
@@ -174,4 +196,20 @@ public abstract class TriggerItem implements Debuggable {
 		return next;
 	}
 
+	/**
+	 * Sets the line number of this item in its script.
+	 * Only used for debugging and profiling.
+	 * @param line Line number
+	 */
+	public void setLineNumber(int line) {
+		this.line = line;
+	}
+
+	/**
+	 * @return The line number of this item in its script, or -1 if unknown. This should ONLY be used for debugging and profiling!
+	 */
+	public int getLineNumber() {
+		return line;
+	}
+
 }
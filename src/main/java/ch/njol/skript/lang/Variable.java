@@ -26,7 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
-import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 import ch.njol.skript.Skript;
 import ch.njol.skript.SkriptAPIException;
@@ -52,7 +52,6 @@ import ch.njol.util.Kleenean;
 import ch.njol.util.Pair;
 import ch.njol.util.StringUtils;
 import ch.njol.util.coll.CollectionUtils;
-import ch.njol.util.coll.iterator.EmptyIterator;
 import ch.njol.util.coll.iterator.SingleItemIterator;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
@@ -71,6 +70,11 @@ public class Variable<T> implements Expression<T> {
 	public final static String SEPARATOR = SINGLE_SEPARATOR_CHAR + SINGLE_SEPARATOR_CHAR;
 	public final static String LOCAL_VARIABLE_TOKEN = "_";
 
+	/**
+	 * How often {@link #getRandom(Event)} chooses a value again if the chosen one can't be converted.
+	 */
+	private final static int RANDOM_ATTEMPTS = 4;
+
 	/**
 	 * Script this variable was created in.
 	 */
@@ -82,6 +86,13 @@ public class Variable<T> implements Expression<T> {
 	 */
 	private final VariableString name;
 
+	/**
+	 * The parts of the name of this variable, if the name doesn't contain any expressions.
+	 * See {@link Variables#splitAndInternVariableName(String)}.
+	 */
+	@Nullable
+	private final String[] splitName;
+
 	private final Class<T> superType;
 	private final Class<? extends T>[] types;
 
@@ -105,6 +116,7 @@ public class Variable<T> implements Expression<T> {
 		this.list = list;
 
 		this.name = name;
+		this.splitName = name.isSimple() ? Variables.splitAndInternVariableName(name.toString(null)) : null;
 
 		this.types = types;
 		this.superType = (Class<T>) Utils.getSuperType(types);
@@ -312,7 +324,9 @@ public class Variable<T> implements Expression<T> {
 			// prevents e.g. {%expr%} where "%expr%" ends with "::*" from returning a Map
 			if (name.endsWith(Variable.SEPARATOR + "*") != list)
 				return null;
-			Object value = !list ? convertIfOldPlayer(name, event, Variables.getVariable(name, event, local)) : Variables.getVariable(name, event, local);
+			Object value = Variables.getVariable(name, splitName, event, local);
+			if (!list)
+				value = convertIfOldPlayer(name, event, value);
 			if (value != null)
 				return value;
 
@@ -339,7 +353,7 @@ public class Variable<T> implements Expression<T> {
 		if (!list)
 			return rawValue;
 		if (rawValue == null)
-			return Array.newInstance(types[0], 0);
+			return CollectionUtils.emptyArray(types[0]);
 		List<Object> convertedValues = new ArrayList<>();
 		String name = StringUtils.substring(this.name.toString(event), 0, -1);
 		for (Entry<String, ?> variable : ((Map<String, ?>) rawValue).entrySet()) {
@@ -349,8 +363,10 @@ public class Variable<T> implements Expression<T> {
 					value = ((Map<String, ?>) variable.getValue()).get(null);
 				else
 					value = variable.getValue();
+				if (value instanceof Player) // Only build the name of the variable when it may have to be updated
+					value = convertIfOldPlayer(name + variable.getKey(), event, value);
 				if (value != null)
-					convertedValues.add(convertIfOldPlayer(name + variable.getKey(), event, value));
+					convertedValues.add(value);
 			}
 		}
 		return convertedValues.toArray();
@@ -378,32 +394,25 @@ public class Variable<T> implements Expression<T> {
 		if (!list)
 			throw new SkriptAPIException("Looping a non-list variable");
 		String name = StringUtils.substring(this.name.toString(event), 0, -1);
-		Object val = Variables.getVariable(name + "*", event, local);
-		if (val == null)
-			return new EmptyIterator<>();
-		assert val instanceof TreeMap;
-		// temporary list to prevent CMEs
-		@SuppressWarnings("unchecked")
-		Iterator<String> keys = new ArrayList<>(((Map<String, Object>) val).keySet()).iterator();
+		Iterator<Pair<String, Object>> variables = Variables.getListIterator(name + "*", event, local);
 		return new Iterator<Pair<String, Object>>() {
 			@Nullable
-			private String key;
-			@Nullable
-			private Object next = null;
+			private Pair<String, Object> next = null;
 
 			@Override
 			public boolean hasNext() {
 				if (next != null)
 					return true;
-				while (keys.hasNext()) {
-					key = keys.next();
-					if (key != null) {
-						next = convertIfOldPlayer(name + key, event, Variables.getVariable(name + key, event, local));
-						if (next != null && !(next instanceof TreeMap))
-							return true;
+				while (variables.hasNext()) {
+					Pair<String, Object> variable = variables.next();
+					Object value = variable.getSecond();
+					if (value != null) {
+						if (value instanceof Player)
+							variable.setSecond(convertIfOldPlayer(name + variable.getFirst(), event, value));
+						next = variable;
+						return true;
 					}
 				}
-				next = null;
 				return false;
 			}
 
@@ -411,7 +420,8 @@ public class Variable<T> implements Expression<T> {
 			public Pair<String, Object> next() {
 				if (!hasNext())
 					throw new NoSuchElementException();
-				Pair<String, Object> n = new Pair<>(key, next);
+				Pair<String, Object> n = next;
+				assert n != null;
 				next = null;
 				return n;
 			}
@@ -432,33 +442,24 @@ public class Variable<T> implements Expression<T> {
 			return value != null ? new SingleItemIterator<>(value) : null;
 		}
 		String name = StringUtils.substring(this.name.toString(event), 0, -1);
-		Object value = Variables.getVariable(name + "*", event, local);
-		if (value == null)
-			return new EmptyIterator<>();
-		assert value instanceof TreeMap;
-		// temporary list to prevent CMEs
-		Iterator<String> keys = new ArrayList<>(((Map<String, Object>) value).keySet()).iterator();
+		Iterator<Pair<String, Object>> variables = Variables.getListIterator(name + "*", event, local);
 		return new Iterator<T>() {
-			@Nullable
-			private String key;
 			@Nullable
 			private T next = null;
 
 			@Override
-			@SuppressWarnings({"unchecked"})
 			public boolean hasNext() {
 				if (next != null)
 					return true;
-				while (keys.hasNext()) {
-					key = keys.next();
-					if (key != null) {
-						next = Converters.convert(Variables.getVariable(name + key, event, local), types);
-						next = (T) convertIfOldPlayer(name + key, event, next);
-						if (next != null && !(next instanceof TreeMap))
-							return true;
-					}
+				while (variables.hasNext()) {
+					Pair<String, Object> variable = variables.next();
+					Object value = variable.getSecond();
+					if (value instanceof Player)
+						value = convertIfOldPlayer(name + variable.getFirst(), event, value);
+					next = Converters.convert(value, types);
+					if (next != null)
+						return true;
 				}
-				next = null;
 				return false;
 			}
 
@@ -491,7 +492,7 @@ public class Variable<T> implements Expression<T> {
 	}
 
 	private void set(Event event, @Nullable Object value) {
-		Variables.setVariable("" + name.toString(event), value, event, local);
+		Variables.setVariable("" + name.toString(event), splitName, value, event, local);
 	}
 
 	private void setIndex(Event event, String index, @Nullable Object value) {
@@ -571,6 +572,14 @@ public class Variable<T> implements Expression<T> {
 			case REMOVE_ALL:
 				assert delta != null;
 				if (list) {
+					if (mode != ChangeMode.ADD) {
+						List<String> toRemove = findIndicesToRemove(event, delta, mode == ChangeMode.REMOVE_ALL);
+						if (toRemove != null) {
+							for (String index : toRemove)
+								setIndex(event, index, null);
+							break;
+						}
+					}
 					Map<String, Object> map = (Map<String, Object>) getRaw(event);
 					if (mode == ChangeMode.REMOVE) {
 						if (map == null)
@@ -683,7 +692,7 @@ public class Variable<T> implements Expression<T> {
 			return getConvertedArray(event);
 		T value = getConverted(event);
 		if (value == null) {
-			return (T[]) Array.newInstance(superType, 0);
+			return CollectionUtils.emptyArray(superType);
 		}
 		T[] valueArray = (T[]) Array.newInstance(superType, 1);
 		valueArray[0] = value;
@@ -704,6 +713,152 @@ public class Variable<T> implements Expression<T> {
 		return SimpleExpression.check(getAll(event), checker, negated, getAnd());
 	}
 
+	/**
+	 * @return whether the script of this variable has default variables,
+	 * which are used instead of this variable if it isn't set.
+	 */
+	private boolean hasDefaultVariables() {
+		DefaultVariables data = script == null ? null : script.getData(DefaultVariables.class);
+		return data != null && data.hasDefaultVariables();
+	}
+
+	/**
+	 * Counts the values of this list variable without getting them,
+	 * like {@code getAll(event).length} or, if recursive, like counting the values of {@link #getRaw(Event)} and its sublists.
+	 *
+	 * @param event the event.
+	 * @param recursive whether the values of all sublists and the value of the list itself are counted as well.
+	 * @return the amount of values, or -1 if they can't be counted without getting them,
+	 * i.e. if they have to be converted to the type of this variable or if the default variables of the script may apply.
+	 * @see Variables#getListSize(String, String[], Event, boolean, boolean)
+	 */
+	public int size(Event event, boolean recursive) {
+		if (!list)
+			throw new SkriptAPIException("Counting the values of a non-list variable");
+		if (!recursive && (types.length != 1 || types[0] != Object.class))
+			return -1;
+		if (hasDefaultVariables())
+			return -1;
+		String name = this.name.toString(event);
+		if (!name.endsWith(SEPARATOR + "*"))
+			return 0;
+		return Variables.getListSize(name, splitName, event, local, recursive);
+	}
+
+	/**
+	 * Gets a random value of this list variable without getting all of its values.
+	 * The values are not copied, but walked until the randomly chosen one is reached.
+	 *
+	 * @param event the event.
+	 * @return a random value, or {@code null} if the list is empty or no value could be found this way,
+	 * e.g. because the chosen values can't be converted to the type of this variable.
+	 */
+	@Nullable
+	public T getRandom(Event event) {
+		if (!list)
+			throw new SkriptAPIException("Getting a random value of a non-list variable");
+		if (hasDefaultVariables())
+			return null;
+		String name = this.name.toString(event);
+		if (!name.endsWith(SEPARATOR + "*"))
+			return null;
+		String prefix = name.substring(0, name.length() - 1);
+
+		// Values that can't be converted are chosen again, which keeps the choice uniform
+		for (int attempt = 0; attempt < RANDOM_ATTEMPTS; attempt++) {
+			int size = Variables.getListSize(name, splitName, event, local, false);
+			if (size == 0)
+				return null;
+			int skip = ThreadLocalRandom.current().nextInt(size);
+			Iterator<Pair<String, Object>> variables = Variables.getListIterator(name, event, local);
+			Pair<String, Object> chosen = null;
+			while (variables.hasNext()) {
+				Pair<String, Object> variable = variables.next();
+				if (variable.getSecond() == null)
+					continue;
+				chosen = variable;
+				if (skip-- == 0)
+					break;
+			}
+			if (chosen == null)
+				return null;
+			Object value = chosen.getSecond();
+			if (value instanceof Player)
+				value = convertIfOldPlayer(prefix + chosen.getFirst(), event, value);
+			T converted = Converters.convert(value, types);
+			if (converted != null)
+				return converted;
+		}
+		return null;
+	}
+
+	/**
+	 * @return whether this is a global list variable that is indexed by its values,
+	 * see {@link Variables#isIndexedList(String)}.
+	 */
+	public boolean isIndexed(Event event) {
+		return list && !local && Variables.isIndexedList(name.toString(event));
+	}
+
+	/**
+	 * Checks whether this list contains a value equal to the given value, using the index of the list.
+	 *
+	 * @param event the event.
+	 * @param value the value to search for.
+	 * @return whether this list contains the value,
+	 * or {@code null} if this list can't be searched for it this way (see {@link Variables#findInList(String, Object)}).
+	 */
+	@Nullable
+	public Boolean containsIndexed(Event event, Object value) {
+		if (!list || local)
+			return null;
+		List<Pair<String, Object>> found = Variables.findInList(name.toString(event), value);
+		if (found == null)
+			return null;
+		for (Pair<String, Object> entry : found) {
+			Object entryValue = entry.getSecond();
+			if (entryValue instanceof Map)
+				entryValue = ((Map<?, ?>) entryValue).get(null);
+			if (entryValue != null && Relation.EQUAL.isImpliedBy(Comparators.compare(value, entryValue)))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Finds the indices of the values to remove from this list using the index of the list.
+	 * Like when the list is searched without an index, only values that are not sublists are removed.
+	 *
+	 * @param event the event.
+	 * @param delta the values to remove.
+	 * @param all whether all indices of each value are removed, or only the first one.
+	 * @return the indices to remove, or {@code null} if this list can't be searched for all of the values this way.
+	 */
+	@Nullable
+	private List<String> findIndicesToRemove(Event event, Object[] delta, boolean all) {
+		if (local)
+			return null;
+		String name = this.name.toString(event);
+		if (!Variables.isIndexedList(name))
+			return null;
+		List<String> toRemove = new ArrayList<>();
+		for (Object value : delta) {
+			List<Pair<String, Object>> found = Variables.findInList(name, value);
+			if (found == null)
+				return null;
+			for (Pair<String, Object> entry : found) {
+				if (entry.getSecond() instanceof Map)
+					continue;
+				if (Relation.EQUAL.isImpliedBy(Comparators.compare(entry.getSecond(), value))) {
+					toRemove.add(entry.getFirst());
+					if (!all)
+						break;
+				}
+			}
+		}
+		return toRemove;
+	}
+
 	@Override
 	public boolean check(Event event, Checker<? super T> checker) {
 		return SimpleExpression.check(getAll(event), checker, false, getAnd());
@@ -89,7 +89,7 @@ public class FunctionReference<T> {
 	 * Node for {@link #validateFunction(boolean)} to use for logging.
 	 */
 	@Nullable
-	private final Node node;
+	final Node node;
 	
 	/**
 	 * Script in which this reference is found. Used for function unload
@@ -22,6 +22,7 @@ import ch.njol.skript.Skript;
 import ch.njol.skript.SkriptAPIException;
 import ch.njol.skript.SkriptAddon;
 import ch.njol.skript.classes.ClassInfo;
+import ch.njol.skript.config.Node;
 import ch.njol.skript.config.SectionNode;
 import ch.njol.skript.lang.ParseContext;
 import ch.njol.skript.lang.SkriptParser;
@@ -35,10 +36,11 @@ import org.skriptlang.skript.lang.script.Script;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Static methods to work with functions.
@@ -57,9 +59,9 @@ public abstract class Functions {
 	public static ScriptFunction<?> currentFunction = null;
 
 	/**
-	 * Function namespaces.
+	 * Function namespaces. Concurrent, as function calls may be parsed by multiple loader threads.
 	 */
-	private static final Map<Namespace.Key, Namespace> namespaces = new HashMap<>();
+	private static final Map<Namespace.Key, Namespace> namespaces = new ConcurrentHashMap<>();
 
 	/**
 	 * Namespace of Java functions.
@@ -74,7 +76,7 @@ public abstract class Functions {
 	/**
 	 * Namespaces of functions that are globally available.
 	 */
-	private static final Map<String, Namespace> globalFunctions = new HashMap<>();
+	private static final Map<String, Namespace> globalFunctions = new ConcurrentHashMap<>();
 
 	static boolean callFunctionEvents = false;
 
@@ -361,7 +363,7 @@ public abstract class Functions {
 		return namespaces.get(new Namespace.Key(Namespace.Origin.SCRIPT, script));
 	}
 
-	private final static Collection<FunctionReference<?>> toValidate = new ArrayList<>();
+	private final static Collection<FunctionReference<?>> toValidate = new ConcurrentLinkedQueue<>();
 
 	/**
 	 * Remember to call {@link #validateFunctions()} after calling this
@@ -413,6 +415,24 @@ public abstract class Functions {
 		}
 	}
 
+	/**
+	 * Gets the calls to a function from its own script, which aren't revalidated
+	 * when the function is unregistered, unlike the calls from other scripts.
+	 *
+	 * @param signature The signature of the function.
+	 * @return The nodes of the calls to the function from its own script.
+	 */
+	public static List<Node> getCallsFromScript(Signature<?> signature) {
+		List<Node> nodes = new ArrayList<>();
+		synchronized (signature.calls) {
+			for (FunctionReference<?> ref : signature.calls) {
+				if (signature.script.equals(ref.script) && ref.node != null)
+					nodes.add(ref.node);
+			}
+		}
+		return nodes;
+	}
+
 	public static void validateFunctions() {
 		for (FunctionReference<?> c : toValidate)
 			c.validateFunction(false);
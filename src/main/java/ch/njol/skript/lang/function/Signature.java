@@ -89,7 +89,8 @@ public class Signature<T> {
 		this.single = single;
 		this.originClassPath = originClassPath;
 
-		calls = Collections.newSetFromMap(new WeakHashMap<>());
+		// Synchronized, as calls of a function may be parsed by multiple loader threads
+		calls = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
 	}
 
 	public Signature(String script, String name, Parameter<?>[] parameters, boolean local, @Nullable ClassInfo<T> returnType, boolean single) {
@@ -0,0 +1,313 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.lang.parser;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptAddon;
+import ch.njol.skript.lang.SyntaxElementInfo;
+import ch.njol.skript.lang.TriggerSection;
+import ch.njol.skript.util.ExceptionUtils;
+import ch.njol.skript.util.FileUtils;
+import org.bukkit.event.Event;
+import org.eclipse.jdt.annotation.Nullable;
+import org.skriptlang.skript.lang.structure.Structure;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which syntax element and pattern an input was parsed as, so parsing the same input again
+ * (e.g. when reloading scripts) can try that pattern first instead of trying every registered pattern in order.
+ * <p>
+ * Entries are keyed by the input, the kind of syntax element it was parsed as,
+ * and the parts of the {@link ParserInstance} that decide which pattern matches:
+ * the current events, structure and sections, and whether there may be a delay before.
+ * A remembered pattern is only tried first if no syntax element registered before it could match the input,
+ * so the cache never changes which syntax an input is parsed as. If the remembered pattern doesn't match anymore
+ * (e.g. because of changed options, aliases or functions), the input is parsed as usual.
+ * <p>
+ * The cache can also be saved to disk, to be used after a restart. The saved cache is only
+ * used if Skript, its addons and the registered syntax elements haven't changed, see {@link #getFingerprint()}.
+ */
+public final class ParseCache {
+
+	/**
+	 * The file the cache is saved to, in Skript's data folder.
+	 */
+	private static final String FILE_NAME = "parse-cache.dat";
+
+	/**
+	 * The version of the file format.
+	 */
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * The maximum amount of entries, further entries are not cached.
+	 */
+	private static final int MAX_ENTRIES = 100_000;
+
+	/**
+	 * The maximum length of inputs and patterns, longer ones are not cached.
+	 * Also keeps entries below the size limit of {@link DataOutputStream#writeUTF(String)}.
+	 */
+	private static final int MAX_LENGTH = 8192;
+
+	private static final Map<String, Hint> hints = new ConcurrentHashMap<>();
+
+	private static volatile boolean enabled = false;
+
+	private static volatile boolean persistent = false;
+
+	private ParseCache() {}
+
+	/**
+	 * The syntax element and pattern an input was parsed as.
+	 */
+	public static final class Hint {
+
+		private final String elementClass;
+		private final int patternIndex;
+		private final String pattern;
+
+		private Hint(String elementClass, int patternIndex, String pattern) {
+			this.elementClass = elementClass;
+			this.patternIndex = patternIndex;
+			this.pattern = pattern;
+		}
+
+		/**
+		 * @param info a syntax element info.
+		 * @return whether the input was parsed as the given syntax element.
+		 */
+		public boolean matches(SyntaxElementInfo<?> info) {
+			return info.getElementClass().getName().equals(elementClass)
+				&& patternIndex < info.patterns.length
+				&& info.patterns[patternIndex].equals(pattern);
+		}
+
+		/**
+		 * @return the index of the pattern the input was parsed with.
+		 */
+		public int getPatternIndex() {
+			return patternIndex;
+		}
+
+	}
+
+	/**
+	 * Enables or disables the cache. Disabling it clears all cached entries.
+	 *
+	 * @param enabled whether the cache should be used.
+	 */
+	public static void setEnabled(boolean enabled) {
+		ParseCache.enabled = enabled;
+		if (!enabled)
+			hints.clear();
+	}
+
+	/**
+	 * @param persistent whether the cache should be saved to disk when Skript is disabled.
+	 */
+	public static void setPersistent(boolean persistent) {
+		ParseCache.persistent = persistent;
+	}
+
+	/**
+	 * @return whether the cache can be used. It's never used while syntax elements may still be registered.
+	 */
+	public static boolean isEnabled() {
+		return enabled && !Skript.isAcceptRegistrations();
+	}
+
+	/**
+	 * Creates the key for the given input in the current parser state.
+	 *
+	 * @param kind identifies the syntax elements the input is parsed as.
+	 *                The syntax elements of a kind must always be tried in the same order.
+	 * @param input the input.
+	 * @return the key, or {@code null} if the input should not be cached.
+	 */
+	@Nullable
+	public static String getKey(String kind, String input) {
+		if (input.length() > MAX_LENGTH)
+			return null;
+
+		ParserInstance parser = ParserInstance.get();
+		StringBuilder key = new StringBuilder(kind.length() + input.length() + 128);
+		key.append(kind).append('\0');
+
+		Class<? extends Event>[] events = parser.getCurrentEvents();
+		if (events != null) {
+			for (Class<? extends Event> event : events)
+				key.append(event.getName()).append(',');
+		}
+		key.append('\0');
+
+		Structure structure = parser.getCurrentStructure();
+		if (structure != null)
+			key.append(structure.getClass().getName());
+		key.append('\0');
+
+		for (TriggerSection section : parser.getCurrentSections())
+			key.append(section.getClass().getName()).append(',');
+		key.append('\0');
+
+		key.append(parser.getHasDelayBefore().name()).append('\0');
+		return key.append(input).toString();
+	}
+
+	/**
+	 * @param key the key, see {@link #getKey(String, String)}.
+	 * @return the syntax element and pattern the input was parsed as last time, if any.
+	 */
+	@Nullable
+	public static Hint get(String key) {
+		return hints.get(key);
+	}
+
+	/**
+	 * Remembers the syntax element and pattern an input was parsed as.
+	 *
+	 * @param key the key, see {@link #getKey(String, String)}.
+	 * @param info the syntax element the input was parsed as.
+	 * @param patternIndex the index of the pattern the input was parsed with.
+	 */
+	public static void put(String key, SyntaxElementInfo<?> info, int patternIndex) {
+		String pattern = info.patterns[patternIndex];
+		if (pattern.length() > MAX_LENGTH || (hints.size() >= MAX_ENTRIES && !hints.containsKey(key)))
+			return;
+		hints.put(key, new Hint(info.getElementClass().getName(), patternIndex, pattern));
+	}
+
+	/**
+	 * Loads the cache saved by {@link #save()}, if the cache is persistent.
+	 * Must be called after all syntax elements have been registered.
+	 */
+	public static void load() {
+		File file = new File(Skript.getInstance().getDataFolder(), FILE_NAME);
+		if (!enabled || !persistent || !file.exists())
+			return;
+
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+			if (input.readInt() != FORMAT_VERSION || !input.readUTF().equals(getFingerprint()))
+				return; // Outdated, replaced once saved again
+
+			int size = input.readInt();
+			for (int i = 0; i < size && hints.size() < MAX_ENTRIES; i++) {
+				String key = input.readUTF();
+				String elementClass = input.readUTF().intern();
+				int patternIndex = input.readInt();
+				String pattern = input.readUTF();
+				hints.putIfAbsent(key, new Hint(elementClass, patternIndex, pattern));
+			}
+			Skript.debug("Loaded " + hints.size() + " entries of the parse cache");
+		} catch (IOException e) {
+			Skript.warning("Failed to load the parse cache: " + ExceptionUtils.toString(e));
+		}
+	}
+
+	/**
+	 * Saves the cache to disk, if the cache is persistent.
+	 */
+	@SuppressWarnings("unchecked")
+	public static void save() {
+		File file = new File(Skript.getInstance().getDataFolder(), FILE_NAME);
+		if (!enabled || !persistent) {
+			if (file.exists() && !file.delete())
+				Skript.warning("Failed to delete the outdated parse cache '" + file.getName() + "'");
+			return;
+		}
+
+		File tempFile = new File(file.getParentFile(), FILE_NAME + ".temp");
+		try {
+			try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+				output.writeInt(FORMAT_VERSION);
+				output.writeUTF(getFingerprint());
+
+				// Copied first, as entries may still be added while saving
+				Entry<String, Hint>[] entries = hints.entrySet().toArray(new Entry[0]);
+				output.writeInt(entries.length);
+				for (Entry<String, Hint> entry : entries) {
+					Hint hint = entry.getValue();
+					output.writeUTF(entry.getKey());
+					output.writeUTF(hint.elementClass);
+					output.writeInt(hint.patternIndex);
+					output.writeUTF(hint.pattern);
+				}
+			}
+			FileUtils.move(tempFile, file, true);
+		} catch (IOException e) {
+			Skript.warning("Failed to save the parse cache: " + ExceptionUtils.toString(e));
+		}
+	}
+
+	/**
+	 * Describes Skript, its addons and the registered syntax elements.
+	 * A saved cache is only used if the fingerprint hasn't changed since it was saved.
+	 *
+	 * @return the fingerprint.
+	 */
+	private static String getFingerprint() {
+		StringBuilder fingerprint = new StringBuilder();
+		fingerprint.append(Skript.getVersion());
+		for (SkriptAddon addon : Skript.getAddons())
+			fingerprint.append(';').append(addon.getName()).append(' ').append(addon.plugin.getDescription().getVersion());
+
+		int expressions = 0;
+		int patterns = 1;
+		for (Iterator<? extends SyntaxElementInfo<?>> iterator = Skript.getExpressions(); iterator.hasNext(); expressions++)
+			patterns = hashPatterns(patterns, iterator.next());
+		for (SyntaxElementInfo<?> info : Skript.getStatements())
+			patterns = hashPatterns(patterns, info);
+		for (SyntaxElementInfo<?> info : Skript.getSections())
+			patterns = hashPatterns(patterns, info);
+		for (SyntaxElementInfo<?> info : Skript.getEvents())
+			patterns = hashPatterns(patterns, info);
+		for (SyntaxElementInfo<?> info : Skript.getStructures())
+			patterns = hashPatterns(patterns, info);
+
+		fingerprint.append(';').append(Skript.getStatements().size())
+			.append(',').append(Skript.getSections().size())
+			.append(',').append(expressions)
+			.append(',').append(Skript.getEvents().size())
+			.append(',').append(Skript.getStructures().size())
+			.append(';').append(Integer.toHexString(patterns));
+		return fingerprint.toString();
+	}
+
+	/**
+	 * Adds the element class and the patterns of the given syntax element, in order, to the given hash.
+	 */
+	private static int hashPatterns(int hash, SyntaxElementInfo<?> info) {
+		hash = 31 * hash + info.getElementClass().getName().hashCode();
+		for (String pattern : info.patterns)
+			hash = 31 * hash + pattern.hashCode();
+		return hash;
+	}
+
+}
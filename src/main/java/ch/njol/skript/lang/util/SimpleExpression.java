@@ -66,11 +66,8 @@ public abstract class SimpleExpression<T> implements Expression<T> {
 	@SuppressWarnings("unchecked")
 	public T[] getAll(Event event) {
 		T[] values = get(event);
-		if (values == null) {
-			T[] emptyArray = (T[]) Array.newInstance(getReturnType(), 0);
-			assert emptyArray != null;
-			return emptyArray;
-		}
+		if (values == null)
+			return CollectionUtils.emptyArray((Class<T>) getReturnType());
 		if (values.length == 0)
 			return values;
 		int numNonNull = 0;
@@ -92,9 +89,8 @@ public abstract class SimpleExpression<T> implements Expression<T> {
 	@SuppressWarnings("unchecked")
 	public final T[] getArray(Event event) {
 		T[] values = get(event);
-		if (values == null) {
-			return (T[]) Array.newInstance(getReturnType(), 0);
-		}
+		if (values == null)
+			return CollectionUtils.emptyArray((Class<T>) getReturnType());
 		if (values.length == 0)
 			return values;
 
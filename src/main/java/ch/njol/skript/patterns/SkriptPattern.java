@@ -34,19 +34,45 @@ public class SkriptPattern {
 
 	private final String[] keywords;
 
+	/**
+	 * For each choice in this pattern that is not optional, the keywords of which at least one must be present.
+	 */
+	private final String[][] choiceKeywords;
+
 	public SkriptPattern(PatternElement first, int expressionAmount) {
 		this.first = first;
 		this.expressionAmount = expressionAmount;
 		keywords = getKeywords(first);
+		choiceKeywords = getChoiceKeywords(first);
+	}
+
+	/**
+	 * Checks whether the given expression contains the keywords this pattern requires.
+	 * This is much cheaper than {@link #match(String, int, ParseContext)}, and never {@code false} if that would match.
+	 *
+	 * @param lowerExpr the expression in lower case, see {@link Locale#ENGLISH}.
+	 * @return whether this pattern may match the given expression.
+	 */
+	public boolean mayMatch(String lowerExpr) {
+		for (String keyword : keywords) {
+			if (!lowerExpr.contains(keyword))
+				return false;
+		}
+		choices: for (String[] choice : choiceKeywords) {
+			for (String keyword : choice) {
+				if (lowerExpr.contains(keyword))
+					continue choices;
+			}
+			return false;
+		}
+		return true;
 	}
 
 	@Nullable
 	public MatchResult match(String expr, int flags, ParseContext parseContext) {
 		// Matching shortcut
-		String lowerExpr = expr.toLowerCase(Locale.ENGLISH);
-		for (String keyword : keywords)
-			if (!lowerExpr.contains(keyword))
-				return null;
+		if (!mayMatch(expr.toLowerCase(Locale.ENGLISH)))
+			return null;
 
 		expr = expr.trim();
 
@@ -86,6 +112,42 @@ public class SkriptPattern {
 		return keywords.toArray(new String[0]);
 	}
 
+	/**
+	 * Finds the choices that are not optional in the given pattern,
+	 * and for each of them the keywords of which at least one must be present for it to match.
+	 * Choices with an option that doesn't have any keywords are left out.
+	 */
+	private static String[][] getChoiceKeywords(PatternElement first) {
+		List<String[]> choices = new ArrayList<>();
+		PatternElement next = first;
+		while (next != null) {
+			if (next instanceof ChoicePatternElement) {
+				List<PatternElement> options = ((ChoicePatternElement) next).getPatternElements();
+				String[] choice = new String[options.size()];
+				for (int i = 0; i < choice.length; i++) {
+					// The keywords of an option include the ones after the choice, which are required as well
+					for (String keyword : getKeywords(options.get(i))) {
+						if (!keyword.isEmpty()) {
+							choice[i] = keyword;
+							break;
+						}
+					}
+					if (choice[i] == null) {
+						choice = null;
+						break;
+					}
+				}
+				if (choice != null)
+					choices.add(choice);
+			} else if (next instanceof GroupPatternElement) {
+				next = ((GroupPatternElement) next).getPatternElement();
+				continue;
+			}
+			next = next.next;
+		}
+		return choices.toArray(new String[0][]);
+	}
+
 	/**
 	 * @return the size of the {@link MatchResult#expressions} array
 	 * from a match.
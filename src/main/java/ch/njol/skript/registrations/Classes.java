@@ -25,6 +25,8 @@ import java.io.InputStream;
 import java.io.NotSerializableException;
 import java.io.SequenceInputStream;
 import java.lang.reflect.Array;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -34,7 +36,9 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import ch.njol.skript.command.Commands;
@@ -82,7 +86,54 @@ public abstract class Classes {
 	private static ClassInfo<?>[] classInfos = null;
 	private final static List<ClassInfo<?>> tempClassInfos = new ArrayList<>();
 	private final static HashMap<Class<?>, ClassInfo<?>> exactClassInfos = new HashMap<>();
-	private final static HashMap<Class<?>, ClassInfo<?>> superClassInfos = new HashMap<>();
+	
+	/**
+	 * The closest class info of each class, computed once per class after registration is over.
+	 * This can be read from any thread without locking or allocating.
+	 * It's not a {@link ClassValue}, as the values of those are kept by the classes of the server,
+	 * and with them Skript's class loader after Skript has been disabled.
+	 */
+	private final static Map<Class<?>, ClassInfo<?>> superClassInfos = new ConcurrentHashMap<>();
+	
+	/**
+	 * All class infos of each class, in the same order as {@link #getClassInfos()}, see {@link #superClassInfos}.
+	 */
+	private final static Map<Class<?>, List<ClassInfo<?>>> allSuperClassInfos = new ConcurrentHashMap<>();
+	
+	/**
+	 * @return The value of {@link #superClassInfos} for the given class, computing it if it's used for the first time.
+	 */
+	@Nullable
+	private static ClassInfo<?> getCachedSuperClassInfo(Class<?> c) {
+		ClassInfo<?> cached = superClassInfos.get(c);
+		if (cached != null)
+			return cached;
+		for (ClassInfo<?> ci : getClassInfos()) {
+			if (ci.getC().isAssignableFrom(c)) {
+				superClassInfos.putIfAbsent(c, ci);
+				return ci;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * @return The value of {@link #allSuperClassInfos} for the given class, computing it if it's used for the first time.
+	 */
+	private static List<ClassInfo<?>> getCachedAllSuperClassInfos(Class<?> c) {
+		List<ClassInfo<?>> cached = allSuperClassInfos.get(c);
+		if (cached != null)
+			return cached;
+		List<ClassInfo<?>> list = new ArrayList<>();
+		for (ClassInfo<?> ci : getClassInfos()) {
+			if (ci.getC().isAssignableFrom(c))
+				list.add(ci);
+		}
+		List<ClassInfo<?>> computed = Collections.unmodifiableList(list);
+		cached = allSuperClassInfos.putIfAbsent(c, computed);
+		return cached != null ? cached : computed;
+	}
+	
 	private final static HashMap<String, ClassInfo<?>> classInfosByCodeName = new HashMap<>();
 	
 	/**
@@ -130,6 +181,12 @@ public abstract class Classes {
 			if (s != null)
 				Variables.yggdrasil.registerClassResolver(s);
 		}
+		
+		// resolve the registered classes ahead of time, other classes are resolved when first used
+		for (ClassInfo<?> ci : getClassInfos()) {
+			getCachedSuperClassInfo(ci.getC());
+			getCachedAllSuperClassInfos(ci.getC());
+		}
 
 		EntityData.onRegistrationStop();
 	}
@@ -306,18 +363,9 @@ public abstract class Classes {
 	public static <T> ClassInfo<? super T> getSuperClassInfo(final Class<T> c) {
 		assert c != null;
 		checkAllowClassInfoInteraction();
-		final ClassInfo<?> i = superClassInfos.get(c);
-		if (i != null)
-			return (ClassInfo<? super T>) i;
-		for (final ClassInfo<?> ci : getClassInfos()) {
-			if (ci.getC().isAssignableFrom(c)) {
-				if (!Skript.isAcceptRegistrations())
-					superClassInfos.put(c, ci);
-				return (ClassInfo<? super T>) ci;
-			}
-		}
-		assert false;
-		return null;
+		final ClassInfo<?> i = classInfos == null ? null : getCachedSuperClassInfo(c);
+		assert i != null : c;
+		return (ClassInfo<? super T>) i;
 	}
 
 	/**
@@ -336,19 +384,15 @@ public abstract class Classes {
 	 * Gets all the class info of the given class in closest order to ending on object. This list will never be empty unless <tt>c</tt> is null.
 	 * 
 	 * @param c the class to check if assignable from
-	 * @return The closest list of superclass infos
+	 * @return The closest list of superclass infos, which is unmodifiable
 	 */
-	@SuppressWarnings("unchecked")
+	@SuppressWarnings({"unchecked", "rawtypes"})
 	public static <T> List<ClassInfo<? super T>> getAllSuperClassInfos(Class<T> c) {
 		assert c != null;
 		checkAllowClassInfoInteraction();
-		List<ClassInfo<? super T>> list = new ArrayList<>();
-		for (ClassInfo<?> ci : getClassInfos()) {
-			if (ci.getC().isAssignableFrom(c)) {
-				list.add((ClassInfo<? super T>) ci);
-			}
-		}
-		return list;
+		if (classInfos == null)
+			return Collections.emptyList();
+		return (List) getCachedAllSuperClassInfos(c);
 	}
 	
 	/**
@@ -755,6 +799,12 @@ public abstract class Classes {
 		
 		assert s.mustSyncDeserialization() ? Bukkit.isPrimaryThread() : true;
 		
+		if (o.getClass() == ci.getC()) {
+			byte[] simple = serializeSimple(o);
+			if (simple != null)
+				return new SerializedVariable.Value(ci.getCodeName(), simple);
+		}
+		
 		try {
 			final ByteArrayOutputStream bout = new ByteArrayOutputStream();
 			final YggdrasilOutputStream yout = Variables.yggdrasil.newOutputStream(bout);
@@ -790,6 +840,9 @@ public abstract class Classes {
 	
 	@Nullable
 	public static Object deserialize(final ClassInfo<?> type, final byte[] value) {
+		Class<?> c = type.getC();
+		if (c == String.class || Tag.isWrapper(c))
+			return deserializeSimple(c, value);
 		return deserialize(type, new ByteArrayInputStream(value));
 	}
 	
@@ -798,7 +851,89 @@ public abstract class Classes {
 		final ClassInfo<?> ci = getClassInfoNoError(type);
 		if (ci == null)
 			return null;
-		return deserialize(ci, new ByteArrayInputStream(value));
+		return deserialize(ci, value);
+	}
+	
+	/**
+	 * Serializes strings and primitive wrappers without Yggdrasil, as these make up most variables.
+	 * The result is exactly what Yggdrasil writes after {@link #getYggdrasilStart(ClassInfo)},
+	 * so values can be read by either way.
+	 * 
+	 * @return The serialized value, or null if the value is of any other type
+	 */
+	@Nullable
+	private static byte[] serializeSimple(Object o) {
+		if (o instanceof String) {
+			byte[] string = ((String) o).getBytes(UTF_8);
+			int length = string.length;
+			byte[] r;
+			if (length <= 0x7FFF) { // see DefaultYggdrasilOutputStream#writeUnsignedInt
+				r = new byte[2 + length];
+				r[0] = (byte) (0x80 | (length >>> 8));
+				r[1] = (byte) length;
+			} else {
+				r = ByteBuffer.allocate(4 + length).putInt(length).array();
+			}
+			System.arraycopy(string, 0, r, r.length - length, length);
+			return r;
+		} else if (o instanceof Long) {
+			return ByteBuffer.allocate(8).putLong((Long) o).array();
+		} else if (o instanceof Double) {
+			return ByteBuffer.allocate(8).putLong(Double.doubleToLongBits((Double) o)).array();
+		} else if (o instanceof Integer) {
+			return ByteBuffer.allocate(4).putInt((Integer) o).array();
+		} else if (o instanceof Float) {
+			return ByteBuffer.allocate(4).putInt(Float.floatToIntBits((Float) o)).array();
+		} else if (o instanceof Short) {
+			return ByteBuffer.allocate(2).putShort((Short) o).array();
+		} else if (o instanceof Character) {
+			return ByteBuffer.allocate(2).putChar((Character) o).array();
+		} else if (o instanceof Byte) {
+			return new byte[] {(Byte) o};
+		} else if (o instanceof Boolean) {
+			return new byte[] {(byte) ((Boolean) o ? 1 : 0)};
+		}
+		return null;
+	}
+	
+	/**
+	 * Reads values written by {@link #serializeSimple(Object)} (or Yggdrasil).
+	 * 
+	 * @param c String or a primitive wrapper
+	 * @return The value, or null if the data is too short
+	 */
+	@Nullable
+	private static Object deserializeSimple(Class<?> c, byte[] value) {
+		ByteBuffer buffer = ByteBuffer.wrap(value);
+		try {
+			if (c == String.class) {
+				int length = buffer.get(0) < 0 ? buffer.getShort() & 0x7FFF : buffer.getInt();
+				if (length < 0 || length > buffer.remaining())
+					return null;
+				return new String(value, buffer.position(), length, UTF_8);
+			} else if (c == Long.class) {
+				return buffer.getLong();
+			} else if (c == Double.class) {
+				return buffer.getDouble();
+			} else if (c == Integer.class) {
+				return buffer.getInt();
+			} else if (c == Float.class) {
+				return buffer.getFloat();
+			} else if (c == Short.class) {
+				return buffer.getShort();
+			} else if (c == Character.class) {
+				return buffer.getChar();
+			} else if (c == Byte.class) {
+				return buffer.get();
+			} else if (c == Boolean.class) {
+				byte b = buffer.get();
+				return b == 1 ? Boolean.TRUE : b == 0 ? Boolean.FALSE : null;
+			}
+		} catch (BufferUnderflowException | IndexOutOfBoundsException e) { // i.e. invalid save
+			return null;
+		}
+		assert false : c;
+		return null;
 	}
 	
 	@Nullable
@@ -342,6 +342,11 @@ public class StructCommand extends Structure {
 		}
 	}
 
+	@Override
+	public boolean isReusable() {
+		return true;
+	}
+
 	@Override
 	public Priority getPriority() {
 		return PRIORITY;
@@ -128,6 +128,14 @@ public class StructFunction extends Structure {
 		return true;
 	}
 
+	/**
+	 * @return The signature of this function, or null if it hasn't been parsed successfully.
+	 */
+	@Nullable
+	public Signature<?> getSignature() {
+		return signature;
+	}
+
 	@Override
 	public void unload() {
 		assert signature != null;
@@ -135,6 +143,11 @@ public class StructFunction extends Structure {
 		VALIDATE_FUNCTIONS.set(true);
 	}
 
+	@Override
+	public boolean isReusable() {
+		return true;
+	}
+
 	@Override
 	public Priority getPriority() {
 		return PRIORITY;
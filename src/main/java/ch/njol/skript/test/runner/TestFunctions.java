@@ -23,6 +23,11 @@ import ch.njol.skript.lang.function.Functions;
 import ch.njol.skript.lang.function.Parameter;
 import ch.njol.skript.lang.function.SimpleJavaFunction;
 import ch.njol.skript.registrations.DefaultClasses;
+import ch.njol.skript.variables.Variables;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Functions available only to testing scripts.
@@ -48,6 +53,20 @@ public class TestFunctions {
 						"caseEquals(\"text\", \"text\", \"text\") = true", 
 						"caseEquals({some list variable::*})")
 			.since("2.5"));
+
+		Functions.registerFunction(new SimpleJavaFunction<Object>("indexListVariables", stringsParam, null, true) {
+			@Override
+			@Nullable
+			public Object[] executeSimple(final Object[][] params) {
+				List<String> names = new ArrayList<>();
+				for (Object name : params[0])
+					names.add((String) name);
+				Variables.setIndexedLists(names);
+				return null;
+			}
+		}.description("Sets the global list variables that are indexed by their values, replacing the 'indexed list variables' option.")
+			.examples("indexListVariables(\"indexed\")")
+			.since("INSERT VERSION"));
 	}
 	
 }
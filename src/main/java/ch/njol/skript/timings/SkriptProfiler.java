@@ -0,0 +1,331 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.timings;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.lang.Trigger;
+import ch.njol.skript.lang.TriggerItem;
+import org.eclipse.jdt.annotation.Nullable;
+import org.skriptlang.skript.lang.script.Script;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Measures the time spent in and the memory allocated by each {@link TriggerItem} while it's running.
+ * <p>
+ * The measurements are attributed to the stack of triggers and trigger items that led to them,
+ * so e.g. the items of a function are listed below the function call that executed them.
+ * They can be dumped in the collapsed stack format, which can be turned into flame graphs
+ * (e.g. using <a href="https://github.com/brendangregg/FlameGraph">flamegraph.pl</a> or speedscope).
+ * <p>
+ * The profiler has no overhead when it's not running.
+ */
+public final class SkriptProfiler {
+
+	private SkriptProfiler() {}
+
+	/**
+	 * The key of the frame for trigger items that don't belong to a trigger (e.g. effect commands).
+	 */
+	private static final Object UNKNOWN_TRIGGER = new Object();
+
+	@Nullable
+	private static final com.sun.management.ThreadMXBean ALLOCATIONS;
+
+	static {
+		com.sun.management.ThreadMXBean allocations = null;
+		if (Skript.classExists("com.sun.management.ThreadMXBean")
+				&& ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+			allocations = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+			if (!allocations.isThreadAllocatedMemorySupported() || !allocations.isThreadAllocatedMemoryEnabled())
+				allocations = null;
+		}
+		ALLOCATIONS = allocations;
+	}
+
+	private static volatile boolean running = false;
+
+	/**
+	 * When the current profile was started, as by {@link System#currentTimeMillis()}.
+	 */
+	private static volatile long startTime = 0;
+
+	/**
+	 * The frames of the triggers that were executed from outside a trigger.
+	 */
+	private static volatile Map<Object, Frame> roots = new ConcurrentHashMap<>();
+
+	/**
+	 * The frames currently being executed by each thread.
+	 */
+	private static final ThreadLocal<Deque<ActiveFrame>> STACK = ThreadLocal.withInitial(ArrayDeque::new);
+
+	/**
+	 * The measurements of a trigger or trigger item, with the same parent frames.
+	 */
+	private static final class Frame {
+
+		final String label;
+
+		final Map<Object, Frame> children = new ConcurrentHashMap<>();
+
+		/**
+		 * Time spent in this frame, excluding its children.
+		 */
+		final LongAdder nanos = new LongAdder();
+
+		/**
+		 * Memory allocated in this frame, excluding its children.
+		 */
+		final LongAdder bytes = new LongAdder();
+
+		final LongAdder calls = new LongAdder();
+
+		Frame(String label) {
+			this.label = label;
+		}
+
+		Frame getChild(Object key, Object labelSource) {
+			Frame child = children.get(key);
+			if (child == null)
+				child = children.computeIfAbsent(key, k -> new Frame(getLabel(labelSource)));
+			return child;
+		}
+
+	}
+
+	/**
+	 * A frame currently being executed by a thread.
+	 */
+	private static final class ActiveFrame {
+
+		final Frame frame;
+		final long startNanos;
+		final long startBytes;
+
+		/**
+		 * The time spent in and the memory allocated by the children of this frame so far.
+		 */
+		long childNanos, childBytes;
+
+		ActiveFrame(Frame frame) {
+			this.frame = frame;
+			this.startBytes = allocatedBytes();
+			this.startNanos = System.nanoTime();
+		}
+
+		/**
+		 * Stops measuring this frame.
+		 *
+		 * @param parent the parent of this frame, if it's still being executed.
+		 */
+		void stop(@Nullable ActiveFrame parent) {
+			long nanos = System.nanoTime() - startNanos;
+			long bytes = allocatedBytes() - startBytes;
+			frame.nanos.add(nanos - childNanos);
+			frame.bytes.add(bytes - childBytes);
+			frame.calls.increment();
+			if (parent != null) {
+				parent.childNanos += nanos;
+				parent.childBytes += bytes;
+			}
+		}
+
+	}
+
+	/**
+	 * @return whether the profiler is running.
+	 */
+	public static boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * @return whether the profiler has been started since Skript was enabled, i.e. whether there is a profile to dump.
+	 */
+	public static boolean hasProfile() {
+		return startTime != 0;
+	}
+
+	/**
+	 * @return whether allocated memory is measured, which depends on the JVM.
+	 */
+	public static boolean isMeasuringAllocations() {
+		return ALLOCATIONS != null;
+	}
+
+	/**
+	 * Starts the profiler, discarding all previous measurements.
+	 */
+	public static void start() {
+		roots = new ConcurrentHashMap<>();
+		startTime = System.currentTimeMillis();
+		running = true;
+	}
+
+	/**
+	 * Stops the profiler, keeping the measurements until it's started again.
+	 */
+	public static void stop() {
+		running = false;
+	}
+
+	/**
+	 * Starts measuring the trigger of the given trigger item, which is about to be walked.
+	 * Must be followed by a call to {@link #exit()} on the same thread.
+	 *
+	 * @param start the first item to be walked.
+	 */
+	public static void enter(TriggerItem start) {
+		Deque<ActiveFrame> stack = STACK.get();
+		Trigger trigger = start.getTrigger();
+		Object key = trigger == null ? UNKNOWN_TRIGGER : trigger;
+		ActiveFrame parent = stack.peek();
+		Frame frame;
+		if (parent == null) {
+			frame = roots.get(key);
+			if (frame == null)
+				frame = roots.computeIfAbsent(key, k -> new Frame(getLabel(trigger)));
+		} else {
+			frame = parent.frame.getChild(key, trigger == null ? UNKNOWN_TRIGGER : trigger);
+		}
+		stack.push(new ActiveFrame(frame));
+	}
+
+	/**
+	 * Stops measuring the trigger started by the last call to {@link #enter(TriggerItem)} on this thread.
+	 */
+	public static void exit() {
+		Deque<ActiveFrame> stack = STACK.get();
+		ActiveFrame active = stack.poll();
+		if (active != null)
+			active.stop(stack.peek());
+	}
+
+	/**
+	 * Walks the given trigger item and measures it.
+	 *
+	 * @param item the trigger item.
+	 * @param walker walks the trigger item, see {@link TriggerItem#walk(TriggerItem, org.bukkit.event.Event)}.
+	 * @return the next item to walk, as returned by the walker.
+	 */
+	@Nullable
+	public static TriggerItem walk(TriggerItem item, UnaryOperator<TriggerItem> walker) {
+		Deque<ActiveFrame> stack = STACK.get();
+		ActiveFrame parent = stack.peek();
+		if (parent == null || item instanceof Trigger) // A trigger only returns its first item, part of its own frame
+			return walker.apply(item);
+
+		ActiveFrame active = new ActiveFrame(parent.frame.getChild(item, item));
+		stack.push(active);
+		try {
+			return walker.apply(item);
+		} finally {
+			stack.poll();
+			active.stop(parent);
+		}
+	}
+
+	/**
+	 * Writes the measurements to two files in the collapsed stack format,
+	 * one with the time spent in microseconds and one with the allocated memory in bytes.
+	 *
+	 * @param folder the folder to write the files to.
+	 * @return the file with the time spent.
+	 * @throws IOException if the files could not be written.
+	 * @throws IllegalStateException if the profiler has never been started, see {@link #hasProfile()}.
+	 */
+	public static File dump(File folder) throws IOException {
+		if (!hasProfile())
+			throw new IllegalStateException("The profiler has never been started");
+		if (!folder.isDirectory() && !folder.mkdirs())
+			throw new IOException("Cannot create the folder " + folder);
+
+		String name = "profile-" + new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date(startTime));
+		File timeFile = new File(folder, name + ".txt");
+		File allocationsFile = new File(folder, name + "-allocations.txt");
+		try (
+			PrintWriter time = new PrintWriter(Files.newBufferedWriter(timeFile.toPath(), StandardCharsets.UTF_8));
+			PrintWriter allocations = new PrintWriter(Files.newBufferedWriter(allocationsFile.toPath(), StandardCharsets.UTF_8))
+		) {
+			for (Frame root : roots.values())
+				dump(root, "", time, allocations);
+		}
+		return timeFile;
+	}
+
+	private static void dump(Frame frame, String parentStack, PrintWriter time, PrintWriter allocations) {
+		String stack = parentStack.isEmpty() ? frame.label : parentStack + ";" + frame.label;
+
+		long micros = frame.nanos.sum() / 1000;
+		if (micros > 0)
+			time.println(stack + " " + micros);
+		long bytes = frame.bytes.sum();
+		if (bytes > 0)
+			allocations.println(stack + " " + bytes);
+
+		for (Frame child : frame.children.values())
+			dump(child, stack, time, allocations);
+	}
+
+	/**
+	 * @return the label of the frame of the given trigger or trigger item,
+	 * containing its script, line and trigger name or syntax element.
+	 */
+	private static String getLabel(@Nullable Object source) {
+		if (!(source instanceof TriggerItem))
+			return "<unknown trigger>";
+		TriggerItem item = (TriggerItem) source;
+
+		String script = "<unknown script>";
+		Trigger trigger = item.getTrigger();
+		if (trigger != null) {
+			Script triggerScript = trigger.getScript();
+			if (triggerScript != null)
+				script = triggerScript.getConfig().getFileName();
+		}
+
+		String label = script + ":" + item.getLineNumber() + " "
+			+ (item instanceof Trigger ? ((Trigger) item).getName() : item.getClass().getSimpleName());
+		// ';' separates frames and line breaks separate stacks in the collapsed stack format
+		return label.replace(';', ',').replace('\n', ' ');
+	}
+
+	/**
+	 * @return the amount of memory allocated by the current thread so far, or 0 if this is not supported.
+	 */
+	private static long allocatedBytes() {
+		com.sun.management.ThreadMXBean allocations = ALLOCATIONS;
+		return allocations == null ? 0 : allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+}
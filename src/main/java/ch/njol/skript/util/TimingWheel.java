@@ -0,0 +1,205 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.util;
+
+import ch.njol.skript.Skript;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks on the main thread after a given amount of ticks, using a single repeating Bukkit task.
+ * <p>
+ * Tasks are kept in a hierarchical timing wheel: the first level has a slot for each of the next 64 ticks,
+ * the second level a slot for each of the next 64 spans of 64 ticks, and so on.
+ * Scheduling a task and running the tasks of a tick therefore don't depend on the amount of scheduled tasks,
+ * unlike scheduling every task with the Bukkit scheduler.
+ * <p>
+ * Tasks can be scheduled from any thread, but are only ever run on the main thread.
+ */
+public final class TimingWheel {
+
+	/**
+	 * The amount of slots of each level is {@code 1 << SLOT_BITS}.
+	 */
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+
+	/**
+	 * The amount of levels, which covers delays of up to {@code 1 << (SLOT_BITS * LEVELS)} ticks (about 9 days).
+	 * Longer delays are kept in the last slot of the highest level until they are in range.
+	 */
+	private static final int LEVELS = 4;
+
+	private static final class Task {
+
+		final long deadline;
+		final Runnable runnable;
+
+		Task(long deadline, Runnable runnable) {
+			this.deadline = deadline;
+			this.runnable = runnable;
+		}
+
+	}
+
+	/**
+	 * The slots of each level, only accessed on the main thread.
+	 */
+	@SuppressWarnings("unchecked")
+	private final List<Task>[][] wheel = new List[LEVELS][SLOTS];
+
+	/**
+	 * Tasks that were scheduled since the last tick, added to the wheel on the next tick.
+	 */
+	private final Queue<Task> scheduled = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The amount of ticks the wheel has advanced by. Only written on the main thread.
+	 */
+	private volatile long currentTick = 0;
+
+	private final AtomicInteger size = new AtomicInteger();
+
+	@Nullable
+	private BukkitTask task;
+
+	/**
+	 * Starts advancing the wheel once every tick.
+	 * The wheel should be started before any other tasks of the plugin are scheduled, as Bukkit runs tasks
+	 * due in the same tick in the order they were created. This way tasks are always scheduled after the wheel
+	 * has advanced in the current tick, and don't run a tick early.
+	 *
+	 * @param plugin the plugin to run the wheel with.
+	 */
+	public void start(Plugin plugin) {
+		if (task != null)
+			task.cancel();
+		task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1, 1);
+	}
+
+	/**
+	 * Stops advancing the wheel and discards all scheduled tasks.
+	 */
+	public void stop() {
+		if (task != null) {
+			task.cancel();
+			task = null;
+		}
+		scheduled.clear();
+		for (List<Task>[] level : wheel) {
+			for (int i = 0; i < SLOTS; i++)
+				level[i] = null;
+		}
+		size.set(0);
+	}
+
+	/**
+	 * Schedules a task to be run on the main thread.
+	 *
+	 * @param runnable the task.
+	 * @param ticks the delay in ticks, at least one tick.
+	 */
+	public void schedule(Runnable runnable, long ticks) {
+		scheduled.add(new Task(currentTick + Math.max(ticks, 1), runnable));
+		size.incrementAndGet();
+	}
+
+	/**
+	 * @return the amount of tasks that have been scheduled but haven't run yet.
+	 */
+	public int size() {
+		return size.get();
+	}
+
+	/**
+	 * Advances the wheel by one tick and runs all tasks that are due.
+	 * Called by the repeating task, or directly by tests.
+	 */
+	void tick() {
+		long now = ++currentTick;
+		List<Task> due = new ArrayList<>();
+
+		Task scheduledTask;
+		while ((scheduledTask = scheduled.poll()) != null)
+			add(scheduledTask, now, due);
+
+		// Move the tasks of the current slot of each higher level down, once the levels below have gone round
+		for (int level = LEVELS - 1; level > 0; level--) {
+			if ((now & ((1L << (SLOT_BITS * level)) - 1)) != 0)
+				continue;
+			int slot = (int) (now >>> (SLOT_BITS * level)) & SLOT_MASK;
+			List<Task> tasks = wheel[level][slot];
+			if (tasks == null)
+				continue;
+			wheel[level][slot] = null;
+			for (Task task : tasks)
+				add(task, now, due);
+		}
+
+		int slot = (int) now & SLOT_MASK;
+		List<Task> tasks = wheel[0][slot];
+		if (tasks != null) {
+			wheel[0][slot] = null;
+			due.addAll(tasks);
+		}
+
+		for (Task task : due) {
+			size.decrementAndGet();
+			try {
+				task.runnable.run();
+			} catch (Throwable t) {
+				Skript.exception(t, "Exception while running a delayed task");
+			}
+		}
+	}
+
+	private void add(Task task, long now, List<Task> due) {
+		long remaining = task.deadline - now;
+		if (remaining <= 0) {
+			due.add(task);
+			return;
+		}
+
+		int level = 0;
+		while (level < LEVELS - 1 && remaining >= 1L << (SLOT_BITS * (level + 1)))
+			level++;
+		int slot;
+		if (remaining >= 1L << (SLOT_BITS * LEVELS)) {
+			// Out of range, kept in the slot that is moved down last and added again from there
+			slot = (int) ((now >>> (SLOT_BITS * level)) + SLOT_MASK) & SLOT_MASK;
+		} else {
+			slot = (int) (task.deadline >>> (SLOT_BITS * level)) & SLOT_MASK;
+		}
+
+		List<Task> tasks = wheel[level][slot];
+		if (tasks == null)
+			wheel[level][slot] = tasks = new ArrayList<>();
+		tasks.add(task);
+	}
+
+}
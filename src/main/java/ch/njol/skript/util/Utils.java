@@ -776,6 +776,13 @@ public abstract class Utils {
 		return lastIndex;
 	}
 
+	/**
+	 * Same as {@link #isInteger(Number...)}, without creating an array for the most common case of two numbers.
+	 */
+	public static boolean isInteger(Number left, Number right) {
+		return !(left instanceof Double || left instanceof Float || right instanceof Double || right instanceof Float);
+	}
+
 	public static boolean isInteger(Number... numbers) {
 		for (Number number : numbers) {
 			if (Double.class.isAssignableFrom(number.getClass()) || Float.class.isAssignableFrom(number.getClass()))
@@ -0,0 +1,725 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.variables;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.config.SectionNode;
+import ch.njol.skript.log.SkriptLogger;
+import ch.njol.skript.util.ExceptionUtils;
+import ch.njol.skript.util.FileUtils;
+import ch.njol.skript.util.Task;
+import ch.njol.skript.util.Timespan;
+import ch.njol.skript.variables.SerializedVariable.Value;
+import ch.njol.util.NotifyingReference;
+import com.google.common.io.CountingInputStream;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A variable storage that stores its content in a binary snapshot
+ * and an append-only log of changes made since that snapshot.
+ * <p>
+ * Changes are only ever appended to the log. Once enough changes have been made,
+ * a background thread merges the log into the snapshot (compaction).
+ * Unlike {@link FlatFileStorage}, this never needs to serialize all variables again,
+ * as only the already serialized records on disk are merged.
+ * <p>
+ * The snapshot is split into {@link #SEGMENTS} files by the hash of the variable names, see {@link #getSegment(String)}.
+ * A compaction only rewrites the segments that contain changed variables, one after another,
+ * so it only needs as much additional disk space as the largest segment takes.
+ * <p>
+ * All files consist of a header ({@link #MAGIC} and {@link #FORMAT_VERSION})
+ * followed by records, each starting with a byte telling its kind:
+ * <ul>
+ *     <li>{@link #RECORD_TYPE}: a type name, written once per file before the first value of that type.
+ *     Types are numbered in the order they are written, starting at 0.</li>
+ *     <li>{@link #RECORD_SET}: the variable name, the number of its type, and the serialized value</li>
+ *     <li>{@link #RECORD_DELETE}: the variable name</li>
+ * </ul>
+ * Names, type names and values are written as their length followed by their bytes (UTF-8 for strings),
+ * and all lengths and type numbers are written as variable-length integers, see {@link #writeVarInt(DataOutputStream, int)}.
+ */
+public class BinaryFileStorage extends VariablesStorage {
+
+	/**
+	 * The first bytes of every file written by this storage ("SKVB").
+	 */
+	private static final int MAGIC = 0x534B5642;
+
+	/**
+	 * The version of the file format.
+	 */
+	private static final byte FORMAT_VERSION = 1;
+
+	/**
+	 * Marks a record that adds a type name to the file's types.
+	 */
+	private static final byte RECORD_TYPE = 0;
+
+	/**
+	 * Marks a record that sets a variable.
+	 */
+	private static final byte RECORD_SET = 1;
+
+	/**
+	 * Marks a record that deletes a variable.
+	 */
+	private static final byte RECORD_DELETE = 2;
+
+	/**
+	 * The amount of files the snapshot is split into.
+	 */
+	static final int SEGMENTS = 16;
+
+	/**
+	 * The amount of {@link #changes} needed for a compaction.
+	 */
+	private static final int REQUIRED_CHANGES_FOR_COMPACTION = 10000;
+
+	/**
+	 * The interval in milliseconds in which the compaction thread checks whether a compaction is needed.
+	 */
+	private static final long COMPACTION_CHECK_INTERVAL = 60 * 1000;
+
+	/**
+	 * The log changes are appended to.
+	 * <p>
+	 * A lock on this object must be acquired after {@link #connectionLock}.
+	 */
+	private final NotifyingReference<DataOutputStream> changesWriter = new NotifyingReference<>();
+
+	/**
+	 * The types already written to the log, with their numbers.
+	 * <p>
+	 * Only accessed while holding a lock on {@link #changesWriter}.
+	 */
+	private final Map<String, Integer> logTypes = new HashMap<>();
+
+	/**
+	 * The amount of changes appended to the log since it was last rotated,
+	 * including the changes that were in the log when it was loaded.
+	 */
+	private final AtomicInteger changes = new AtomicInteger(0);
+
+	/**
+	 * Ensures only one compaction runs at a time.
+	 */
+	private final Object compactionLock = new Object();
+
+	/**
+	 * The file changes are appended to, next to the snapshot {@link #file}.
+	 */
+	@Nullable
+	private File logFile;
+
+	/**
+	 * The log being merged into the snapshot by a running (or interrupted) compaction.
+	 */
+	@Nullable
+	private File compactingLogFile;
+
+	/**
+	 * Create a new binary storage of the given name.
+	 *
+	 * @param name the name.
+	 */
+	BinaryFileStorage(String name) {
+		super(name);
+	}
+
+	/**
+	 * Loads the variables of the snapshot and the logs.
+	 * <p>
+	 * Doesn't lock the connection, as required by
+	 * {@link Variables#variableLoaded(String, Object, VariablesStorage)}.
+	 */
+	@Override
+	protected boolean load_i(SectionNode sectionNode) {
+		SkriptLogger.setNode(null);
+
+		File file = this.file;
+		if (file == null) {
+			assert false : this;
+			return false;
+		}
+		logFile = new File(file.getParentFile(), file.getName() + ".log");
+		compactingLogFile = new File(file.getParentFile(), file.getName() + ".compacting.log");
+
+		int unsuccessfulVariableCount = 0;
+		StringBuilder invalid = new StringBuilder();
+		try {
+			// Changes in the logs replace the snapshot's values, so they are read first
+			Map<String, SerializedVariable> logged = new LinkedHashMap<>();
+			readLog(compactingLogFile, logged);
+			List<String> types = readLog(logFile, logged);
+			synchronized (changesWriter) {
+				// New changes are appended to the log, so they can refer to its types
+				logTypes.clear();
+				for (int i = 0; i < types.size(); i++)
+					logTypes.put(types.get(i), i);
+			}
+
+			changes.set(logged.size());
+
+			Map<String, SerializedVariable> loaded = new LinkedHashMap<>();
+			for (int segment = 0; segment < SEGMENTS; segment++) {
+				File segmentFile = getSegmentFile(file, segment);
+				if (segmentFile.length() == 0)
+					continue;
+				try (FileChannel channel = FileChannel.open(segmentFile.toPath(), StandardOpenOption.READ)) {
+					if (channel.size() > Integer.MAX_VALUE) {
+						Skript.error("The database file '" + segmentFile.getName() + "' is too large to be loaded");
+						return false;
+					}
+					ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+					DataInputStream input = new DataInputStream(new ByteBufferInputStream(buffer));
+					readHeader(input, segmentFile);
+					List<String> snapshotTypes = new ArrayList<>();
+					SerializedVariable variable;
+					while ((variable = readRecord(input, snapshotTypes)) != null) {
+						if (!logged.containsKey(variable.name))
+							loaded.put(variable.name, variable);
+					}
+				}
+			}
+			loaded.putAll(logged);
+
+			VariablesLoader loader = new VariablesLoader(this);
+			for (SerializedVariable variable : loaded.values()) {
+				Value value = variable.value;
+				if (value != null)
+					loader.load(variable.name, value.type, value.data);
+			}
+			for (String name : loader.finish()) {
+				if (invalid.length() != 0)
+					invalid.append(", ");
+				invalid.append(name);
+				unsuccessfulVariableCount++;
+			}
+		} catch (IOException e) {
+			Skript.error("An I/O error occurred while loading the variables: " + ExceptionUtils.toString(e));
+			Skript.error("This means that some to all variables could not be loaded!");
+			return false;
+		}
+
+		if (unsuccessfulVariableCount > 0) {
+			Skript.error(unsuccessfulVariableCount + " variable" + (unsuccessfulVariableCount == 1 ? "" : "s") +
+					" could not be loaded!");
+			Skript.error("Affected variables: " + invalid);
+		}
+
+		if (!connect())
+			return false;
+
+		Skript.newThread(() -> {
+			while (!closed) {
+				try {
+					Thread.sleep(COMPACTION_CHECK_INTERVAL);
+				} catch (InterruptedException ignored) {}
+				if (!closed && changes.get() >= REQUIRED_CHANGES_FOR_COMPACTION)
+					compact();
+			}
+		}, "Skript database '" + databaseName + "' compaction thread").start();
+
+		return true;
+	}
+
+	@Override
+	protected void allLoaded() {
+		// no transaction support
+	}
+
+	@Override
+	protected boolean requiresFile() {
+		return true;
+	}
+
+	@Override
+	protected File getFile(String fileName) {
+		return new File(fileName);
+	}
+
+	@Override
+	protected final void disconnect() {
+		synchronized (connectionLock) {
+			synchronized (changesWriter) {
+				DataOutputStream writer = changesWriter.get();
+				if (writer != null) {
+					try {
+						writer.close();
+					} catch (IOException e) {
+						Skript.error("Could not close the log of the database '" + databaseName + "': " + ExceptionUtils.toString(e));
+					}
+					changesWriter.set(null);
+				}
+			}
+		}
+	}
+
+	@Override
+	protected final boolean connect() {
+		synchronized (connectionLock) {
+			synchronized (changesWriter) {
+				File logFile = this.logFile;
+				assert logFile != null; // file should be non-null after load
+
+				if (changesWriter.get() != null)
+					return true;
+
+				try {
+					boolean newFile = logFile.length() == 0;
+					DataOutputStream writer = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(logFile, true)));
+					if (newFile) {
+						writeHeader(writer);
+						logTypes.clear();
+					}
+					writer.flush();
+					changesWriter.set(writer);
+					return true;
+				} catch (IOException e) {
+					//noinspection ThrowableNotThrown
+					Skript.exception(e);
+					return false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Backs up the log along with the snapshot, as the snapshot alone does not contain all variables.
+	 */
+	@Override
+	public void startBackupTask(Timespan backupInterval) {
+		File file = this.file;
+		if (file == null || backupInterval.getTicks() == 0)
+			return;
+
+		backupTask = new Task(Skript.getInstance(), backupInterval.getTicks(), backupInterval.getTicks(), true) {
+			@Override
+			public void run() {
+				synchronized (compactionLock) {
+					synchronized (connectionLock) {
+						disconnect();
+						try {
+							for (int segment = 0; segment < SEGMENTS; segment++) {
+								File segmentFile = getSegmentFile(file, segment);
+								if (segment == 0 || segmentFile.exists())
+									FileUtils.backup(segmentFile);
+							}
+							File logFile = BinaryFileStorage.this.logFile;
+							if (logFile != null && logFile.exists())
+								FileUtils.backup(logFile);
+						} catch (IOException e) {
+							Skript.error("Automatic variables backup failed: " + e.getLocalizedMessage());
+						} finally {
+							connect();
+						}
+					}
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compacts the log on close if it contains any changes, so the next start doesn't have to read them from the log.
+	 */
+	@Override
+	public void close() {
+		super.close();
+		disconnect();
+		File compactingLogFile = this.compactingLogFile;
+		if (changes.get() > 0 || compactingLogFile != null && compactingLogFile.exists())
+			compact();
+	}
+
+	@Override
+	protected boolean save(String name, @Nullable String type, @Nullable byte[] value) {
+		synchronized (connectionLock) {
+			synchronized (changesWriter) {
+				// Get the writer, waiting for it to be available if needed
+				DataOutputStream writer;
+				while ((writer = changesWriter.get()) == null) {
+					try {
+						changesWriter.wait();
+					} catch (InterruptedException e) {
+						// Re-interrupt thread
+						Thread.currentThread().interrupt();
+					}
+				}
+
+				try {
+					writeRecord(writer, name, type == null || value == null ? null : new Value(type, value), logTypes);
+					writer.flush();
+				} catch (IOException e) {
+					Skript.error("Could not save the variable {" + name + "} to the database '" + databaseName + "': " +
+							ExceptionUtils.toString(e));
+					return false;
+				}
+
+				changes.incrementAndGet();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Merges the log into the segments of the snapshot.
+	 * <p>
+	 * The log is first renamed to {@link #compactingLogFile}, so that changes made while merging
+	 * are appended to a new log. If the server stops before the merge has finished, the renamed log
+	 * is simply read again on the next start and merged by the next compaction.
+	 */
+	private void compact() {
+		File file = this.file;
+		File logFile = this.logFile;
+		File compactingLogFile = this.compactingLogFile;
+		if (file == null || logFile == null || compactingLogFile == null)
+			return;
+
+		synchronized (compactionLock) {
+			// A previous compaction may not have finished, in which case its log must be merged first
+			if (!compactingLogFile.exists()) {
+				synchronized (connectionLock) {
+					boolean connected;
+					synchronized (changesWriter) {
+						connected = changesWriter.get() != null;
+					}
+					disconnect();
+					try {
+						if (logFile.exists())
+							FileUtils.move(logFile, compactingLogFile, false);
+						changes.set(0);
+					} catch (IOException e) {
+						Skript.error("Could not compact the database '" + databaseName + "': " + ExceptionUtils.toString(e));
+						return;
+					} finally {
+						if (connected)
+							connect();
+					}
+				}
+			}
+
+			try {
+				merge(file, compactingLogFile);
+			} catch (IOException e) {
+				Skript.error("Could not compact the database '" + databaseName + "' (no variables are lost): " +
+						ExceptionUtils.toString(e));
+			}
+		}
+	}
+
+	/**
+	 * Merges the given log into the segments of the given snapshot and deletes the log.
+	 * Only the segments that contain changed variables are rewritten.
+	 * <p>
+	 * Each segment is written to a temporary file first, so the old one stays intact if this fails.
+	 * The log is only deleted once all segments have been written. If this is interrupted before,
+	 * merging the log again gives the same result, as the rewritten segments already contain its changes.
+	 *
+	 * @param file the snapshot file, i.e. its first segment, see {@link #getSegmentFile(File, int)}.
+	 * @param log the log to merge into the snapshot.
+	 */
+	static void merge(File file, File log) throws IOException {
+		Map<String, SerializedVariable> logged = new LinkedHashMap<>();
+		readLog(log, logged, new ArrayList<>());
+
+		List<Map<String, SerializedVariable>> segments = new ArrayList<>(SEGMENTS);
+		for (int segment = 0; segment < SEGMENTS; segment++)
+			segments.add(new LinkedHashMap<>());
+		for (SerializedVariable variable : logged.values())
+			segments.get(getSegment(variable.name)).put(variable.name, variable);
+
+		for (int segment = 0; segment < SEGMENTS; segment++) {
+			if (!segments.get(segment).isEmpty())
+				mergeSegment(getSegmentFile(file, segment), segments.get(segment));
+		}
+		Files.delete(log.toPath());
+	}
+
+	/**
+	 * Rewrites the given segment of the snapshot with the given changes.
+	 *
+	 * @param segment the segment file, which may be empty or not exist yet.
+	 * @param logged the changes of the variables of this segment, keyed by variable name.
+	 */
+	private static void mergeSegment(File segment, Map<String, SerializedVariable> logged) throws IOException {
+		File tempFile = new File(segment.getParentFile(), segment.getName() + ".temp");
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+			writeHeader(output);
+			Map<String, Integer> outputTypes = new HashMap<>();
+
+			// Copy all records from the old segment that weren't changed since
+			if (segment.length() > 0) {
+				try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment.toPath())))) {
+					readHeader(input, segment);
+					List<String> inputTypes = new ArrayList<>();
+					SerializedVariable variable;
+					while ((variable = readRecord(input, inputTypes)) != null) {
+						if (!logged.containsKey(variable.name))
+							writeRecord(output, variable.name, variable.value, outputTypes);
+					}
+				}
+			}
+
+			// Deleted variables are simply not written
+			for (SerializedVariable variable : logged.values()) {
+				if (variable.value != null)
+					writeRecord(output, variable.name, variable.value, outputTypes);
+			}
+		}
+		FileUtils.move(tempFile, segment, true);
+	}
+
+	/**
+	 * @param name the name of a variable.
+	 * @return the segment of the snapshot that contains the variable.
+	 */
+	static int getSegment(String name) {
+		return (name.hashCode() & Integer.MAX_VALUE) % SEGMENTS;
+	}
+
+	/**
+	 * @param file the snapshot file, which is its first segment.
+	 * @param segment the number of a segment.
+	 * @return the file of the given segment of the snapshot.
+	 */
+	static File getSegmentFile(File file, int segment) {
+		return segment == 0 ? file : new File(file.getParentFile(), file.getName() + "." + segment);
+	}
+
+	/**
+	 * Reads all records of the given log, warning about an incomplete last record,
+	 * see {@link #readLog(File, Map, List)}.
+	 *
+	 * @return the types of the log, in the order they were written.
+	 */
+	private List<String> readLog(File log, Map<String, SerializedVariable> records) throws IOException {
+		List<String> types = new ArrayList<>();
+		if (readLog(log, records, types))
+			Skript.warning("The last change in '" + log.getName() + "' was incomplete and has been removed");
+		return types;
+	}
+
+	/**
+	 * Reads all records of the given log, if it exists, into the given map.
+	 * Later records replace earlier records of the same variable.
+	 * <p>
+	 * A record cut off at the end of the log (e.g. due to a crash) is ignored and truncated from the log,
+	 * so that changes appended to the log afterwards directly follow its last complete record.
+	 *
+	 * @param log the log file.
+	 * @param records the map to put the records in, keyed by variable name.
+	 * @param types the list to add the types of the log to, in the order they were written.
+	 * @return whether an incomplete record has been removed from the end of the log.
+	 */
+	static boolean readLog(File log, Map<String, SerializedVariable> records, List<String> types) throws IOException {
+		if (log.length() == 0)
+			return false;
+
+		// The end of the last complete record, and the amount of types written before it
+		long complete = 0;
+		int completeTypes = types.size();
+		try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(log.toPath())))) {
+			DataInputStream input = new DataInputStream(counter);
+			try {
+				readHeader(input, log);
+				complete = counter.getCount();
+				SerializedVariable variable;
+				while ((variable = readRecord(input, types)) != null) {
+					// Remove first to keep the order of the latest changes
+					records.remove(variable.name);
+					records.put(variable.name, variable);
+					complete = counter.getCount();
+					completeTypes = types.size();
+				}
+				return false;
+			} catch (EOFException ignored) {
+				// The last record is incomplete, which is handled below
+			}
+		}
+
+		// Types written right before the incomplete record are removed along with it
+		types.subList(completeTypes, types.size()).clear();
+		try (FileChannel channel = FileChannel.open(log.toPath(), StandardOpenOption.WRITE)) {
+			channel.truncate(complete);
+		}
+		return true;
+	}
+
+	static void writeHeader(DataOutputStream output) throws IOException {
+		output.writeInt(MAGIC);
+		output.writeByte(FORMAT_VERSION);
+	}
+
+	private static void readHeader(DataInputStream input, File file) throws IOException {
+		if (input.readInt() != MAGIC)
+			throw new IOException("'" + file.getName() + "' is not a binary variables file");
+		byte version = input.readByte();
+		if (version != FORMAT_VERSION)
+			throw new IOException("'" + file.getName() + "' uses the unsupported format version " + version);
+	}
+
+	/**
+	 * Writes a record, preceded by a {@link #RECORD_TYPE} record if the value's type hasn't been written yet.
+	 *
+	 * @param output the output to write to.
+	 * @param name the variable name.
+	 * @param value the serialized value, or {@code null} if the variable was deleted.
+	 * @param types the types already written to the output, with their numbers. New types are added.
+	 */
+	static void writeRecord(DataOutputStream output, String name, @Nullable Value value, Map<String, Integer> types) throws IOException {
+		if (value == null) {
+			output.writeByte(RECORD_DELETE);
+			writeBytes(output, name.getBytes(StandardCharsets.UTF_8));
+			return;
+		}
+		Integer type = types.get(value.type);
+		if (type == null) {
+			type = types.size();
+			output.writeByte(RECORD_TYPE);
+			writeBytes(output, value.type.getBytes(StandardCharsets.UTF_8));
+			types.put(value.type, type);
+		}
+		output.writeByte(RECORD_SET);
+		writeBytes(output, name.getBytes(StandardCharsets.UTF_8));
+		writeVarInt(output, type);
+		writeBytes(output, value.data);
+	}
+
+	/**
+	 * Reads a record, skipping (and remembering) {@link #RECORD_TYPE} records.
+	 *
+	 * @param input the input to read from.
+	 * @param types the types read from the input so far. New types are added.
+	 * @return the record, or {@code null} if the end of the input has been reached.
+	 * @throws EOFException if the input ended within the record.
+	 */
+	@Nullable
+	private static SerializedVariable readRecord(DataInputStream input, List<String> types) throws IOException {
+		while (true) {
+			int kind = input.read();
+			switch (kind) {
+				case -1:
+					return null;
+				case RECORD_TYPE:
+					types.add(new String(readBytes(input), StandardCharsets.UTF_8).intern());
+					break;
+				case RECORD_SET: {
+					String name = new String(readBytes(input), StandardCharsets.UTF_8);
+					int type = readVarInt(input);
+					if (type >= types.size())
+						throw new IOException("Invalid type " + type + " of the variable {" + name + "}");
+					return new SerializedVariable(name, new Value(types.get(type), readBytes(input)));
+				}
+				case RECORD_DELETE:
+					return new SerializedVariable(new String(readBytes(input), StandardCharsets.UTF_8), null);
+				default:
+					throw new IOException("Invalid record kind " + kind);
+			}
+		}
+	}
+
+	private static void writeBytes(DataOutputStream output, byte[] bytes) throws IOException {
+		writeVarInt(output, bytes.length);
+		output.write(bytes);
+	}
+
+	private static byte[] readBytes(DataInputStream input) throws IOException {
+		byte[] bytes = new byte[readVarInt(input)];
+		input.readFully(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Writes a non-negative int in 7 bit groups, lowest first, with the highest bit of each byte
+	 * set if more bytes follow. Numbers below 128 only take a single byte.
+	 */
+	private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+		assert value >= 0 : value;
+		while ((value & ~0x7F) != 0) {
+			output.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		output.writeByte(value);
+	}
+
+	private static int readVarInt(DataInputStream input) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			byte b = input.readByte();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				if (value < 0)
+					throw new IOException("Invalid length " + value);
+				return value;
+			}
+		}
+		throw new IOException("Invalid variable-length integer");
+	}
+
+	/**
+	 * An {@link InputStream} reading from a (memory mapped) {@link ByteBuffer}.
+	 */
+	private static final class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if (length == 0)
+				return 0;
+			if (!buffer.hasRemaining())
+				return -1;
+			length = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, length);
+			return length;
+		}
+
+	}
+
+}
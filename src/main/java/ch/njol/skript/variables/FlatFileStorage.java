@@ -162,6 +162,9 @@ public class FlatFileStorage extends VariablesStorage {
 		Version v2_1 = new Version(2, 1);
 		boolean update2_1 = false;
 
+		// Deserializes variables on worker threads while the file is being read
+		VariablesLoader loader = new VariablesLoader(this);
+
 		try (BufferedReader reader = new BufferedReader(
 				new InputStreamReader(Files.newInputStream(file.toPath()), FILE_CHARSET))) {
 			String line;
@@ -200,7 +203,12 @@ public class FlatFileStorage extends VariablesStorage {
 					continue;
 				}
 
-				if (split[1].equals("null")) {
+				if (!update2_1 && !update2_0_beta3) {
+					if (split[1].equals("null"))
+						loader.load(split[0], null, null);
+					else
+						loader.load(split[0], split[1], decode(split[2]));
+				} else if (split[1].equals("null")) {
 					Variables.variableLoaded(split[0], null, this);
 				} else {
 					Object deserializedValue;
@@ -234,6 +242,14 @@ public class FlatFileStorage extends VariablesStorage {
 			ioException = e;
 		}
 
+		for (String name : loader.finish()) {
+			if (invalid.length() != 0)
+				invalid.append(", ");
+
+			invalid.append(name);
+			unsuccessfulVariableCount++;
+		}
+
 		if (ioException != null || unsuccessfulVariableCount > 0 || update2_1) {
 			// Something's wrong (or just an old version)
 			if (unsuccessfulVariableCount > 0) {
@@ -494,8 +510,10 @@ public class FlatFileStorage extends VariablesStorage {
 					for (VariablesStorage storage : Variables.STORAGES) {
 						if (storage.accept(name)) {
 							if (storage == this) {
-								// Serialize the value
-								SerializedVariable.Value serializedValue = Classes.serialize(childNode);
+								// Serialize the value, unless it has not been deserialized yet
+								SerializedVariable.Value serializedValue = childNode instanceof LazyValue
+									? ((LazyValue) childNode).serialized
+									: Classes.serialize(childNode);
 
 								// Write the CSV line
 								if (serializedValue != null)
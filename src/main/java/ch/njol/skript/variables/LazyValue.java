@@ -0,0 +1,102 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.variables;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.classes.ClassInfo;
+import ch.njol.skript.registrations.Classes;
+import ch.njol.skript.variables.SerializedVariable.Value;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A loaded variable value that is only deserialized once it is first read.
+ * <p>
+ * Only used for global variables if {@link Variables#lazyDeserialization} is enabled.
+ * {@link VariablesMap} replaces these with their deserialized value when they are read,
+ * so they are never exposed outside of this package.
+ */
+final class LazyValue {
+
+	/**
+	 * The name of the variable, used to report values that can't be deserialized.
+	 */
+	final String name;
+
+	/**
+	 * The type of the serialized value.
+	 */
+	private final ClassInfo<?> type;
+
+	/**
+	 * The serialized value, as it was loaded from the storage.
+	 */
+	final Value serialized;
+
+	/**
+	 * The deserialized value, {@code null} if it hasn't been deserialized yet.
+	 */
+	@Nullable
+	private volatile Object value;
+
+	/**
+	 * Whether the value has failed to be deserialized.
+	 */
+	private volatile boolean failed;
+
+	/**
+	 * @param name the name of the variable.
+	 * @param type the type of the value. Its serializer must not require synchronous deserialization,
+	 *                as values may be read from any thread.
+	 * @param serialized the serialized value.
+	 */
+	LazyValue(String name, ClassInfo<?> type, Value serialized) {
+		assert type.getSerializer() != null && !type.getSerializer().mustSyncDeserialization() : type;
+		this.name = name;
+		this.type = type;
+		this.serialized = serialized;
+	}
+
+	/**
+	 * Deserializes the value if that hasn't happened yet.
+	 *
+	 * @return the deserialized value, or {@code null} if it couldn't be deserialized.
+	 */
+	@Nullable
+	Object get() {
+		Object value = this.value;
+		if (value != null || failed)
+			return value;
+
+		synchronized (this) {
+			value = this.value;
+			if (value != null || failed)
+				return value;
+
+			value = Classes.deserialize(type, serialized.data);
+			if (value == null) {
+				failed = true;
+				Skript.error("Cannot load the variable {" + name + "}, because it cannot be loaded as " +
+					type.getName().withIndefiniteArticle() + ". It will be treated as not set.");
+			}
+			this.value = value;
+			return value;
+		}
+	}
+
+}
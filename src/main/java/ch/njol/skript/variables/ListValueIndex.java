@@ -0,0 +1,178 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.variables;
+
+import ch.njol.skript.Skript;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * An index from the values of a list variable to their indices,
+ * used to find a value in a list without comparing it to every value of the list.
+ * <p>
+ * The index can only be searched for texts, numbers and booleans, and only while the list doesn't contain anything else,
+ * since only then two values can be equal (see {@link org.skriptlang.skript.lang.comparator.Comparators}) if and only if
+ * they have the same {@link #key(Object) key}. Keys are coarser than that equality, so the found indices are candidates
+ * which still need to be compared to the searched value.
+ * <p>
+ * The value of an index that is a sublist is the value of the sublist itself, as the list's values are
+ * (see {@link ch.njol.skript.lang.Variable#getAll(org.bukkit.event.Event)}).
+ *
+ * @see VariablesMap#findInList(String, String[], Object, boolean)
+ */
+final class ListValueIndex {
+
+	private final Map<Object, Set<String>> indices = new HashMap<>();
+
+	/**
+	 * The amount of values in the list that are not indexed, i.e. not a text, number or boolean.
+	 */
+	private int unindexed = 0;
+
+	/**
+	 * Indexes all values of the given list, which must not contain any {@link LazyValue}s.
+	 */
+	@SuppressWarnings("unchecked")
+	ListValueIndex(TreeMap<String, Object> list) {
+		for (Entry<String, Object> entry : list.entrySet()) {
+			if (entry.getKey() == null)
+				continue;
+			Object value = entry.getValue();
+			add(entry.getKey(), value instanceof TreeMap ? ((TreeMap<String, Object>) value).get(null) : value);
+		}
+	}
+
+	/**
+	 * Adds a value of the list to the index.
+	 *
+	 * @param index the index of the value.
+	 * @param value the value, or the value of a sublist. {@code null} if the sublist has no value.
+	 */
+	void add(String index, @Nullable Object value) {
+		if (value == null)
+			return;
+		Object key = key(value);
+		if (key == null) {
+			if (!isNaN(value))
+				unindexed++;
+			return;
+		}
+		indices.computeIfAbsent(key, k -> new HashSet<>(2)).add(index);
+	}
+
+	/**
+	 * Removes a value of the list from the index.
+	 *
+	 * @param index the index of the value.
+	 * @param value the value, or the value of a sublist. {@code null} if the sublist has no value.
+	 */
+	void remove(String index, @Nullable Object value) {
+		if (value == null)
+			return;
+		Object key = key(value);
+		if (key == null) {
+			if (!isNaN(value))
+				unindexed--;
+			return;
+		}
+		Set<String> set = indices.get(key);
+		if (set != null && set.remove(index) && set.isEmpty())
+			indices.remove(key);
+	}
+
+	/**
+	 * Finds the indices whose values may be equal to the given value.
+	 *
+	 * @param value the value to search for.
+	 * @return the candidate indices, which must not be modified,
+	 * or {@code null} if the list can't be searched for this value.
+	 */
+	@Nullable
+	Set<String> find(Object value) {
+		if (unindexed > 0)
+			return null;
+		if (value instanceof Number) {
+			double d = ((Number) value).doubleValue();
+			if (Double.isNaN(d)) // NaN is never equal to anything
+				return Collections.emptySet();
+			// Numbers are equal if they differ by less than Skript.EPSILON, which may cross a key's boundary
+			Long lower = (long) Math.floor(d - Skript.EPSILON);
+			Long upper = (long) Math.floor(d + Skript.EPSILON);
+			Set<String> found = indices.getOrDefault(lower, Collections.emptySet());
+			if (lower.equals(upper))
+				return found;
+			Set<String> above = indices.get(upper);
+			if (above == null)
+				return found;
+			Set<String> both = new HashSet<>(found);
+			both.addAll(above);
+			return both;
+		}
+		Object key = key(value);
+		if (key == null)
+			return null;
+		return indices.getOrDefault(key, Collections.emptySet());
+	}
+
+	/**
+	 * @return the key of the given value, or {@code null} if it can't be indexed.
+	 */
+	@Nullable
+	private static Object key(Object value) {
+		if (value instanceof String)
+			return foldCase((String) value);
+		if (value instanceof Number) {
+			double d = ((Number) value).doubleValue();
+			return Double.isNaN(d) ? null : (Object) (long) Math.floor(d);
+		}
+		if (value instanceof Boolean)
+			return value;
+		return null;
+	}
+
+	private static boolean isNaN(Object value) {
+		return value instanceof Number && Double.isNaN(((Number) value).doubleValue());
+	}
+
+	/**
+	 * Folds the case of a string like {@link String#equalsIgnoreCase(String)} compares characters,
+	 * so that strings are equal ignoring case if and only if their folded strings are equal.
+	 */
+	private static String foldCase(String string) {
+		char[] chars = null;
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			char folded = Character.toLowerCase(Character.toUpperCase(c));
+			if (folded != c) {
+				if (chars == null)
+					chars = string.toCharArray();
+				chars[i] = folded;
+			}
+		}
+		return chars == null ? string : new String(chars);
+	}
+
+}
@@ -0,0 +1,164 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.variables;
+
+import ch.njol.util.Pair;
+import org.bukkit.event.Event;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Iterates over the indices of a list variable and their values, walking the list directly.
+ * <p>
+ * The iterator remembers the last index it has read and reads the entry after it whenever the next one is needed,
+ * so it only needs constant memory and never throws a {@link java.util.ConcurrentModificationException}.
+ * It stops after the index that was the last one of the list when the iterator was created,
+ * so indices added to the end of the list while iterating (e.g. by {@code add ... to {list::*}}) are not returned,
+ * just like they weren't when the indices were copied first.
+ * Other changes are seen weakly consistently: removed indices are not returned, changed values are returned
+ * with their new value, and indices added between the last returned one and the original last one are returned,
+ * but changes are not seen anymore once the list has been deleted or its local variables have been copied.
+ * <p>
+ * Each entry of a global list is read while holding the read lock of {@link Variables#variablesLock}.
+ *
+ * @see Variables#getListIterator(String, Event, boolean)
+ */
+final class ListVariableIterator implements Iterator<Pair<String, Object>> {
+
+	/**
+	 * The name of the list, without the trailing {@code *}.
+	 */
+	private final String prefix;
+
+	private final TreeMap<String, Object> list;
+
+	@Nullable
+	private final Event event;
+
+	private final boolean local;
+
+	/**
+	 * The last index that has been read from the list, {@code null} if none has been read yet.
+	 */
+	@Nullable
+	private String lastIndex = null;
+
+	/**
+	 * The last index of the list when this iterator was created, {@code null} if the list had no indices.
+	 */
+	@Nullable
+	private final String endIndex;
+
+	private boolean exhausted;
+
+	/**
+	 * The value of {@link #lastIndex} if it hasn't been returned by {@link #next()} yet,
+	 * i.e. if {@link #hasNext()} has found the next entry.
+	 */
+	private boolean found = false;
+	@Nullable
+	private Object value;
+
+	/**
+	 * @param prefix the name of the list, without the trailing {@code *}.
+	 * @param list the list, as returned by {@link VariablesMap#getVariable(String)}.
+	 */
+	ListVariableIterator(String prefix, TreeMap<String, Object> list, @Nullable Event event, boolean local) {
+		this.prefix = prefix;
+		this.list = list;
+		this.event = event;
+		this.local = local;
+
+		Lock lock = local ? null : Variables.getReadLock();
+		if (lock != null)
+			lock.lock();
+		try {
+			// The list's own value has the null index, which comes first
+			endIndex = list.isEmpty() ? null : list.lastKey();
+		} finally {
+			if (lock != null)
+				lock.unlock();
+		}
+		exhausted = endIndex == null;
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!found) {
+			if (exhausted || !readNext())
+				return false;
+			if (value instanceof LazyValue) {
+				// Deserialized like a single variable would be
+				value = Variables.getVariable(prefix + lastIndex, event, local);
+				found = value != null;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the next index of the list and its value,
+	 * which is {@code null} for sublists that don't have a value themselves.
+	 */
+	@Override
+	public Pair<String, Object> next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		Pair<String, Object> next = new Pair<>(lastIndex, value);
+		found = false;
+		value = null;
+		return next;
+	}
+
+	/**
+	 * Reads the entry after {@link #lastIndex} from the list, as it is now.
+	 *
+	 * @return whether there is such an entry up to {@link #endIndex}.
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean readNext() {
+		Lock lock = local ? null : Variables.getReadLock();
+		if (lock != null)
+			lock.lock();
+		try {
+			// The list's own value has the null index, which comes first and is skipped here
+			Entry<String, Object> entry = list.higherEntry(lastIndex);
+			if (entry == null || VariablesMap.VARIABLE_NAME_COMPARATOR.compare(entry.getKey(), endIndex) > 0) {
+				exhausted = true;
+				return false;
+			}
+			Object value = entry.getValue();
+			if (value instanceof TreeMap)
+				value = ((TreeMap<String, Object>) value).get(null);
+			lastIndex = entry.getKey();
+			this.value = value;
+			found = true;
+			return true;
+		} finally {
+			if (lock != null)
+				lock.unlock();
+		}
+	}
+
+}
@@ -22,6 +22,9 @@ import java.io.File;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
 import java.util.concurrent.Callable;
@@ -72,10 +75,35 @@ public abstract class SQLStorage extends VariablesStorage {
 	private final static String guid = UUID.randomUUID().toString();
 
 	/**
-	 * The delay between transactions in milliseconds.
+	 * The default delay between transactions in milliseconds.
 	 */
 	private final static long TRANSACTION_DELAY = 500;
 
+	/**
+	 * The default amount of variable changes written in a single batch.
+	 */
+	private final static int BATCH_SIZE = 100;
+
+	/**
+	 * The delay between transactions in milliseconds, set by the 'commit interval' option.
+	 */
+	private long transactionDelay = TRANSACTION_DELAY;
+
+	/**
+	 * The duration of the last commit in nanoseconds.
+	 */
+	private volatile long lastCommitDuration = 0;
+
+	/**
+	 * The duration of writing the last batch of variable changes in nanoseconds.
+	 */
+	private volatile long lastBatchDuration = 0;
+
+	/**
+	 * The amount of variable changes in the last batch, after merging changes to the same variable.
+	 */
+	private volatile int lastBatchSize = 0;
+
 	/**
 	 * Creates a SQLStorage with a create table query.
 	 * 
@@ -136,6 +164,26 @@ public abstract class SQLStorage extends VariablesStorage {
 			monitor = monitor_changes;
 			this.monitor_interval = monitor_interval.getMilliSeconds();
 
+			// Optional entries, older configs don't have these
+			if (n.getValue("batch size") != null) {
+				final Integer batch_size = getValue(n, "batch size", Integer.class);
+				if (batch_size == null)
+					return false;
+				if (batch_size < 1) {
+					Skript.error("The batch size of the database '" + databaseName + "' must be at least 1");
+					return false;
+				}
+				batchSize = batch_size;
+			} else {
+				batchSize = BATCH_SIZE;
+			}
+			if (n.getValue("commit interval") != null) {
+				final Timespan commit_interval = getValue(n, "commit interval", Timespan.class);
+				if (commit_interval == null)
+					return false;
+				transactionDelay = commit_interval.getMilliSeconds();
+			}
+
 			final Database db;
 			try {
 				Database database = initialize(n);
@@ -283,16 +331,18 @@ public abstract class SQLStorage extends VariablesStorage {
 				while (!closed) {
 					synchronized (db) {
 						final Database db = SQLStorage.this.db.get();
+						final long start = System.nanoTime();
 						try {
 							if (db != null)
 								db.getConnection().commit();
 						} catch (final SQLException e) {
 							sqlException(e);
 						}
+						lastCommitDuration = System.nanoTime() - start;
 						lastCommit = System.currentTimeMillis();
 					}
 					try {
-						Thread.sleep(Math.max(0, lastCommit + TRANSACTION_DELAY - System.currentTimeMillis()));
+						Thread.sleep(Math.max(0, lastCommit + transactionDelay - System.currentTimeMillis()));
 					} catch (final InterruptedException e) {}
 				}
 			}
@@ -447,14 +497,21 @@ public abstract class SQLStorage extends VariablesStorage {
 	@Nullable
 	PreparedStatement monitorCleanUpQuery;
 
+	/**
+	 * Prints an error if the given variable is too large to be stored in the database.
+	 */
+	private void checkSize(final String name, final @Nullable byte[] value) {
+		// REMIND get the actual maximum size from the database
+		if (name.length() > MAX_VARIABLE_NAME_LENGTH)
+			Skript.error("The name of the variable {" + name + "} is too long to be saved in a database (length: " + name.length() + ", maximum allowed: " + MAX_VARIABLE_NAME_LENGTH + ")! It will be truncated and won't bet available under the same name again when loaded.");
+		if (value != null && value.length > MAX_VALUE_SIZE)
+			Skript.error("The variable {" + name + "} cannot be saved in the database as its value's size (" + value.length + ") exceeds the maximum allowed size of " + MAX_VALUE_SIZE + "! An attempt to save the variable will be made nonetheless.");
+	}
+
 	@Override
 	protected boolean save(final String name, final @Nullable String type, final @Nullable byte[] value) {
 		synchronized (db) {
-			// REMIND get the actual maximum size from the database
-			if (name.length() > MAX_VARIABLE_NAME_LENGTH)
-				Skript.error("The name of the variable {" + name + "} is too long to be saved in a database (length: " + name.length() + ", maximum allowed: " + MAX_VARIABLE_NAME_LENGTH + ")! It will be truncated and won't bet available under the same name again when loaded.");
-			if (value != null && value.length > MAX_VALUE_SIZE)
-				Skript.error("The variable {" + name + "} cannot be saved in the database as its value's size (" + value.length + ") exceeds the maximum allowed size of " + MAX_VALUE_SIZE + "! An attempt to save the variable will be made nonetheless.");
+			checkSize(name, value);
 			try {
 				if (type == null) {
 					assert value == null;
@@ -480,10 +537,85 @@ public abstract class SQLStorage extends VariablesStorage {
 		return true;
 	}
 
+	/**
+	 * Writes all changes using JDBC batches, one for writes and one for deletions.
+	 * Only the last change to each variable within the batch is written.
+	 */
+	@Override
+	protected void saveBatch(final List<SerializedVariable> variables) {
+		if (variables.size() == 1) {
+			super.saveBatch(variables);
+			return;
+		}
+
+		// As only one change per variable remains, the order of writes and deletions doesn't matter
+		final Map<String, SerializedVariable> changes = new LinkedHashMap<>();
+		for (final SerializedVariable variable : variables)
+			changes.put(variable.name, variable);
+
+		synchronized (db) {
+			final long start = System.nanoTime();
+			try {
+				final PreparedStatement writeQuery = this.writeQuery;
+				final PreparedStatement deleteQuery = this.deleteQuery;
+				assert writeQuery != null && deleteQuery != null;
+				boolean hasWrites = false;
+				boolean hasDeletions = false;
+				for (final SerializedVariable variable : changes.values()) {
+					final SerializedVariable.Value value = variable.value;
+					checkSize(variable.name, value == null ? null : value.data);
+					if (value == null) {
+						deleteQuery.setString(1, variable.name);
+						deleteQuery.addBatch();
+						hasDeletions = true;
+					} else {
+						int i = 1;
+						writeQuery.setString(i++, variable.name);
+						writeQuery.setString(i++, value.type);
+						writeQuery.setBytes(i++, value.data); // SQLite desn't support setBlob
+						writeQuery.setString(i++, guid);
+						writeQuery.addBatch();
+						hasWrites = true;
+					}
+				}
+				if (hasDeletions)
+					deleteQuery.executeBatch();
+				if (hasWrites)
+					writeQuery.executeBatch();
+			} catch (final SQLException e) {
+				sqlException(e);
+			}
+			lastBatchDuration = System.nanoTime() - start;
+			lastBatchSize = changes.size();
+		}
+	}
+
+	/**
+	 * @return The duration of the last commit of this database in nanoseconds.
+	 */
+	public long getLastCommitDuration() {
+		return lastCommitDuration;
+	}
+
+	/**
+	 * @return The duration of writing the last batch of variable changes to this database in nanoseconds.
+	 */
+	public long getLastBatchDuration() {
+		return lastBatchDuration;
+	}
+
+	/**
+	 * @return The amount of variables written in the last batch, after merging changes to the same variable.
+	 */
+	public int getLastBatchSize() {
+		return lastBatchSize;
+	}
+
 	@Override
 	public void close() {
+		// Wait for pending changes before locking, the write thread needs the lock to save them
+		super.close();
 		synchronized (db) {
-			super.close();
 			final Database db = this.db.get();
 			if (db != null) {
 				try {
@@ -572,6 +704,8 @@ public abstract class SQLStorage extends VariablesStorage {
 			@Override
 			@Nullable
 			public SQLException call() throws Exception {
+				// Deserializes variables on worker threads while the rows are being read
+				final VariablesLoader loader = new VariablesLoader(SQLStorage.this);
 				try {
 					while (r.next()) {
 						int i = 1;
@@ -583,30 +717,13 @@ public abstract class SQLStorage extends VariablesStorage {
 						final String type = r.getString(i++);
 						final byte[] value = r.getBytes(i++); // Blob not supported by SQLite
 						lastRowID = r.getLong(i++);
-						if (value == null) {
-							Variables.variableLoaded(name, null, SQLStorage.this);
-						} else {
-							final ClassInfo<?> c = Classes.getClassInfoNoError(type);
-							@SuppressWarnings("unused")
-							Serializer<?> s;
-							if (c == null || (s = c.getSerializer()) == null) {
-								Skript.error("Cannot load the variable {" + name + "} from the database '" + databaseName + "', because the type '" + type + "' cannot be recognised or cannot be stored in variables");
-								continue;
-							}
-//					if (s.mustSyncDeserialization()) {
-//						syncDeserializing.add(new VariableInfo(name, value, c));
-//					} else {
-							final Object d = Classes.deserialize(c, value);
-							if (d == null) {
-								Skript.error("Cannot load the variable {" + name + "} from the database '" + databaseName + "', because it cannot be loaded as " + c.getName().withIndefiniteArticle());
-								continue;
-							}
-							Variables.variableLoaded(name, d, SQLStorage.this);
-//					}
-						}
+						loader.load(name, value == null ? null : type, value);
 					}
 				} catch (final SQLException e) {
 					return e;
+				} finally {
+					for (final String name : loader.finish())
+						Skript.error("Cannot load the variable {" + name + "} from the database '" + databaseName + "', because its type cannot be recognised, cannot be stored in variables, or its value is invalid");
 				}
 				return null;
 			}
@@ -32,6 +32,7 @@ import ch.njol.skript.registrations.Classes;
 import ch.njol.skript.variables.SerializedVariable.Value;
 import ch.njol.util.Kleenean;
 import ch.njol.util.NonNullPair;
+import ch.njol.util.Pair;
 import ch.njol.util.SynchronizedReference;
 import ch.njol.yggdrasil.Yggdrasil;
 import org.bukkit.Bukkit;
@@ -48,14 +49,19 @@ import com.google.common.collect.Multimap;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
@@ -64,7 +70,6 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.regex.Pattern;
 
 /**
  * Handles all things related to variables.
@@ -89,6 +94,18 @@ public class Variables {
 	 */
 	public static boolean caseInsensitiveVariables = true;
 
+	/**
+	 * Whether loaded variables are only deserialized once they are first read.
+	 */
+	public static boolean lazyDeserialization = false;
+
+	/**
+	 * The names of the global list variables that are indexed by their values, without the trailing {@code ::*}.
+	 *
+	 * @see #findInList(String, Object)
+	 */
+	private static volatile Set<String> indexedLists = Collections.emptySet();
+
 	/**
 	 * The {@link ch.njol.yggdrasil.ClassResolver#getID(Class) ID} prefix
 	 * for {@link ConfigurationSerializable} classes.
@@ -100,6 +117,7 @@ public class Variables {
 	// Register some things with Yggdrasil
 	static {
 		registerStorage(FlatFileStorage.class, "csv", "file", "flatfile");
+		registerStorage(BinaryFileStorage.class, "binary");
 		registerStorage(SQLiteStorage.class, "sqlite");
 		registerStorage(MySQLStorage.class, "mysql");
 		yggdrasil.registerSingleClass(Kleenean.class, "Kleenean");
@@ -186,6 +204,8 @@ public class Variables {
 
 		// reports once per second how many variables were loaded. Useful to make clear that Skript is still doing something if it's loading many variables
 		Thread loadingLoggerThread = new Thread(() -> {
+			long lastTime = System.currentTimeMillis();
+			int lastCount = 0;
 			while (true) {
 				try {
 					Thread.sleep(Skript.logNormal() ? 1000 : 5000); // low verbosity won't disable these messages, but makes them more rare
@@ -193,10 +213,15 @@ public class Variables {
 
 				synchronized (TEMP_VARIABLES) {
 					Map<String, NonNullPair<Object, VariablesStorage>> tvs = TEMP_VARIABLES.get();
-					if (tvs != null)
-						Skript.info("Loaded " + tvs.size() + " variables so far...");
-					else
+					if (tvs == null)
 						break; // variables loaded, exit thread
+
+					long time = System.currentTimeMillis();
+					int count = tvs.size();
+					Skript.info("Loaded " + count + " variables so far (" +
+						perSecond(count - lastCount, time - lastTime) + " per second)...");
+					lastTime = time;
+					lastCount = count;
 				}
 			}
 		});
@@ -272,9 +297,10 @@ public class Variables {
 					}
 
 					if (Skript.logVeryHigh()) {
+						long duration = System.currentTimeMillis() - start;
 						Skript.info("Loaded " + newVariablesLoaded + " variables from the database " +
-							"'" + sectionNode.getKey() + "' in " +
-							((System.currentTimeMillis() - start) / 100) / 10.0 + " seconds");
+							"'" + sectionNode.getKey() + "' in " + (duration / 100) / 10.0 + " seconds " +
+							"(" + perSecond(newVariablesLoaded, duration) + " per second)");
 					}
 				} else {
 					Skript.error("Invalid line in databases: databases must be defined as sections");
@@ -307,20 +333,53 @@ public class Variables {
 		return true;
 	}
 
-	/**
-	 * A pattern to split variable names using {@link Variable#SEPARATOR}.
-	 */
-	private static final Pattern VARIABLE_NAME_SPLIT_PATTERN = Pattern.compile(Pattern.quote(Variable.SEPARATOR));
-
 	/**
 	 * Splits the given variable name into its parts,
 	 * separated by {@link Variable#SEPARATOR}.
+	 * Trailing empty parts are removed, like {@link String#split(String)} does.
 	 *
 	 * @param name the variable name.
 	 * @return the parts.
 	 */
 	public static String[] splitVariableName(String name) {
-		return VARIABLE_NAME_SPLIT_PATTERN.split(name);
+		int separatorLength = Variable.SEPARATOR.length();
+		int separator = name.indexOf(Variable.SEPARATOR);
+		if (separator == -1)
+			return new String[] {name};
+
+		int parts = 1;
+		for (int i = separator; i != -1; i = name.indexOf(Variable.SEPARATOR, i + separatorLength))
+			parts++;
+
+		String[] split = new String[parts];
+		int start = 0;
+		for (int i = 0; i < parts - 1; i++) {
+			split[i] = name.substring(start, separator);
+			start = separator + separatorLength;
+			separator = name.indexOf(Variable.SEPARATOR, start);
+		}
+		split[parts - 1] = name.substring(start);
+
+		// Trailing empty parts are removed
+		int length = parts;
+		while (length > 0 && split[length - 1].isEmpty())
+			length--;
+		return length == parts ? split : Arrays.copyOf(split, length);
+	}
+
+	/**
+	 * Splits the given variable name into its parts like {@link #splitVariableName(String)},
+	 * and {@link String#intern() interns} them. Interned parts are compared quickly by the variables map,
+	 * so this should be used for variable names that are known in advance.
+	 *
+	 * @param name the variable name.
+	 * @return the interned parts.
+	 */
+	public static String[] splitAndInternVariableName(String name) {
+		String[] split = splitVariableName(name);
+		for (int i = 0; i < split.length; i++)
+			split[i] = split[i].intern();
+		return split;
 	}
 
 	/**
@@ -331,6 +390,7 @@ public class Variables {
 	/**
 	 * The {@link VariablesMap} storing global variables,
 	 * must be locked with {@link #variablesLock}.
+	 * Only single variables may be read without the lock, see {@link VariablesMap#hashMap}.
 	 */
 	static final VariablesMap variables = new VariablesMap();
 
@@ -436,11 +496,30 @@ public class Variables {
 	// TODO don't expose the internal value, bad API
 	@Nullable
 	public static Object getVariable(String name, @Nullable Event event, boolean local) {
-		String n;
+		return getVariable(name, null, event, local);
+	}
+
+	/**
+	 * Returns the internal value of the requested variable,
+	 * like {@link #getVariable(String, Event, boolean)}.
+	 *
+	 * @param name the variable's name.
+	 * @param split the variable's name split into its parts (see {@link #splitAndInternVariableName(String)}),
+	 *                 if it's known in advance.
+	 * @param event if {@code local} is {@code true}, this is the event
+	 *                 the local variable resides in.
+	 * @param local if this variable is a local or global variable.
+	 * @return an {@link Object} for a normal variable
+	 * or a {@code Map<String, Object>} for a list variable,
+	 * or {@code null} if the variable is not set.
+	 */
+	@Nullable
+	public static Object getVariable(String name, @Nullable String[] split, @Nullable Event event, boolean local) {
+		String n = name;
 		if (caseInsensitiveVariables) {
 			n = name.toLowerCase(Locale.ENGLISH);
-		} else {
-			n = name;
+			if (split != null && !n.equals(name)) // The parts are not lowercase
+				split = null;
 		}
 
 		if (local) {
@@ -448,29 +527,138 @@ public class Variables {
 			if (map == null)
 				return null;
 
-			return map.getVariable(n);
+			return map.getVariable(n, split);
 		} else {
-			// Prevent race conditions from returning variables with incorrect values
-			if (!changeQueue.isEmpty()) {
-				// Gets the last VariableChange made
-				VariableChange variableChange = changeQueue.stream()
-						.filter(change -> change.name.equals(n))
-						.reduce((first, second) -> second)
-								// Gets last value, as iteration is from head to tail,
-								//  and adding occurs at the tail (and we want the most recently added)
-						.orElse(null);
-
-				if (variableChange != null) {
-					return variableChange.value;
-				}
-			}
+			// Single variables are stored in a concurrent map, which always contains the most recent value
+			//  (including changes still waiting in the changeQueue), so no lock is needed
+			if (!n.endsWith("*"))
+				return variables.getVariable(n, split);
 
 			try {
 				variablesLock.readLock().lock();
-				return variables.getVariable(n);
+				if (!variables.hasLazyValues())
+					return variables.getVariable(n, split);
 			} finally {
 				variablesLock.readLock().unlock();
 			}
+
+			// Reading the list deserializes its lazily loaded values, which modifies the map
+			try {
+				variablesLock.writeLock().lock();
+				return variables.getVariable(n, split);
+			} finally {
+				variablesLock.writeLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * Iterates over the indices of a list variable and their values,
+	 * without copying the indices of the list first.
+	 * The values of sublists are {@code null} if these sublists don't have a value themselves.
+	 * <p>
+	 * The iterator is weakly consistent, see {@link ListVariableIterator}.
+	 *
+	 * @param name the name of the list variable, ending with {@code ::*}.
+	 * @param event if {@code local} is {@code true}, this is the event
+	 *                 the local variable resides in.
+	 * @param local if this variable is a local or global variable.
+	 * @return the iterator, which is empty if the list variable is not set.
+	 */
+	@SuppressWarnings("unchecked")
+	public static Iterator<Pair<String, Object>> getListIterator(String name, @Nullable Event event, boolean local) {
+		assert name.endsWith(Variable.SEPARATOR + "*") : name;
+		Object list = getVariable(name, event, local);
+		if (!(list instanceof TreeMap))
+			return Collections.emptyIterator();
+		return new ListVariableIterator(name.substring(0, name.length() - 1), (TreeMap<String, Object>) list, event, local);
+	}
+
+	/**
+	 * Counts the values of a list variable without getting them.
+	 * This takes constant time, as the lists keep track of their sizes.
+	 *
+	 * @param name the name of the list variable, ending with {@code ::*}.
+	 * @param split the name split into its parts (see {@link #splitAndInternVariableName(String)}),
+	 *                 if it's known in advance.
+	 * @param event if {@code local} is {@code true}, this is the event
+	 *                 the local variable resides in.
+	 * @param local if this variable is a local or global variable.
+	 * @param recursive whether the values of all sublists and the value of the list itself are counted as well,
+	 *                  instead of only the indices of the list that have a value (including sublists that have a value).
+	 * @return the amount of values, 0 if the list variable is not set.
+	 */
+	public static int getListSize(String name, @Nullable String[] split, @Nullable Event event, boolean local, boolean recursive) {
+		assert name.endsWith(Variable.SEPARATOR + "*") : name;
+		Object list = getVariable(name, split, event, local);
+		if (!(list instanceof VariablesMap.Node))
+			return 0;
+		VariablesMap.Node node = (VariablesMap.Node) list;
+		return recursive ? node.recursiveSize : node.size;
+	}
+
+	/**
+	 * Sets the global list variables that are indexed by their values.
+	 *
+	 * @param names the names of the list variables, with or without the trailing {@code ::*}.
+	 */
+	public static void setIndexedLists(Collection<String> names) {
+		Set<String> indexedLists = new HashSet<>();
+		for (String name : names) {
+			if (name.endsWith(Variable.SEPARATOR + "*"))
+				name = name.substring(0, name.length() - Variable.SEPARATOR.length() - 1);
+			indexedLists.add(caseInsensitiveVariables ? name.toLowerCase(Locale.ENGLISH) : name);
+		}
+		Variables.indexedLists = indexedLists;
+	}
+
+	/**
+	 * @param name the name of a list variable, ending with {@code ::*}.
+	 * @return whether the given global list variable is indexed by its values.
+	 */
+	public static boolean isIndexedList(String name) {
+		Set<String> indexedLists = Variables.indexedLists;
+		if (indexedLists.isEmpty() || !name.endsWith(Variable.SEPARATOR + "*"))
+			return false;
+		if (caseInsensitiveVariables)
+			name = name.toLowerCase(Locale.ENGLISH);
+		return indexedLists.contains(name.substring(0, name.length() - Variable.SEPARATOR.length() - 1));
+	}
+
+	/**
+	 * Finds the indices of an {@link #isIndexedList(String) indexed} global list variable
+	 * whose values may be equal to the given value, without going through the whole list.
+	 * The values of these indices still have to be compared to the given value.
+	 * <p>
+	 * Only texts, numbers and booleans can be found, and only in lists that don't contain other values.
+	 *
+	 * @param name the name of the list variable, ending with {@code ::*}.
+	 * @param value the value to search for.
+	 * @return the candidate indices and their internal values (a {@code Map<String, Object>} for sublists,
+	 * whose value is the value of the sublist itself), sorted by index,
+	 * or {@code null} if the list can't be searched for the value this way.
+	 */
+	@Nullable
+	public static List<Pair<String, Object>> findInList(String name, Object value) {
+		if (!isIndexedList(name))
+			return null;
+		if (caseInsensitiveVariables)
+			name = name.toLowerCase(Locale.ENGLISH);
+
+		try {
+			variablesLock.readLock().lock();
+			if (!variables.hasLazyValues() && variables.isSearchable(name))
+				return variables.findInList(name, null, value, false);
+		} finally {
+			variablesLock.readLock().unlock();
+		}
+
+		// The index of the list has to be created first, which modifies the map
+		try {
+			variablesLock.writeLock().lock();
+			return variables.findInList(name, null, value, true);
+		} finally {
+			variablesLock.writeLock().unlock();
 		}
 	}
 
@@ -499,8 +687,29 @@ public class Variables {
 	 * @param local if this variable is a local or global variable.
 	 */
 	public static void setVariable(String name, @Nullable Object value, @Nullable Event event, boolean local) {
+		setVariable(name, null, value, event, local);
+	}
+
+	/**
+	 * Sets a variable, like {@link #setVariable(String, Object, Event, boolean)}.
+	 *
+	 * @param name the variable's name.
+	 *                Can be a "list variable::*", but {@code value}
+	 *                must be {@code null} in this case.
+	 * @param split the variable's name split into its parts (see {@link #splitAndInternVariableName(String)}),
+	 *                 if it's known in advance.
+	 * @param value The variable's value. Use {@code null}
+	 *                 to delete the variable.
+	 * @param event if {@code local} is {@code true}, this is the event
+	 *                 the local variable resides in.
+	 * @param local if this variable is a local or global variable.
+	 */
+	public static void setVariable(String name, @Nullable String[] split, @Nullable Object value, @Nullable Event event, boolean local) {
 		if (caseInsensitiveVariables) {
-			name = name.toLowerCase(Locale.ENGLISH);
+			String lowerCaseName = name.toLowerCase(Locale.ENGLISH);
+			if (split != null && !lowerCaseName.equals(name)) // The parts are not lowercase
+				split = null;
+			name = lowerCaseName;
 		}
 
 		// Check if conversion is needed due to ClassInfo#getSerializeAs
@@ -521,9 +730,9 @@ public class Variables {
 
 			// Get the variables map and set the variable in it
 			VariablesMap map = localVariables.computeIfAbsent(event, e -> new VariablesMap());
-			map.setVariable(name, value);
+			map.setVariable(name, split, value);
 		} else {
-			setVariable(name, value);
+			setVariable(name, split, value);
 		}
 	}
 
@@ -534,26 +743,41 @@ public class Variables {
 	 * @param value the value, or {@code null} to delete the variable.
 	 */
 	static void setVariable(String name, @Nullable Object value) {
+		setVariable(name, null, value);
+	}
+
+	/**
+	 * Sets the given global variable name to the given value.
+	 *
+	 * @param name the variable name.
+	 * @param split the variable name split into its parts, if it's known in advance.
+	 * @param value the value, or {@code null} to delete the variable.
+	 */
+	private static void setVariable(String name, @Nullable String[] split, @Nullable Object value) {
 		boolean gotLock = variablesLock.writeLock().tryLock();
 		if (gotLock) {
 			try {
-				// Set the variable
-				variables.setVariable(name, value);
-				// ..., save the variable change
-				saveVariableChange(name, value);
-				// ..., and process all previously queued changes
+				// Process all previously queued changes, so they can't overwrite this newer change
 				processChangeQueue();
+				// ..., set the variable
+				variables.setVariable(name, split, value);
+				// ..., and save the variable change
+				saveVariableChange(name, value);
 			} finally {
 				variablesLock.writeLock().unlock();
 			}
 		} else {
 			// Couldn't acquire variable write lock, queue the change (blocking here is a bad idea)
+			// The hash map is updated right away so that reads of this variable see the new value
+			variables.setHashMapVariable(name, value);
 			queueVariableChange(name, value);
 		}
 	}
 
 	/**
-	 * Changes to variables that have not yet been performed.
+	 * Changes to variables that have not yet been performed on the list structure of {@link #variables}.
+	 * Their values are already present in the {@link VariablesMap#hashMap},
+	 * so this queue never has to be searched when reading variables.
 	 */
 	static final Queue<VariableChange> changeQueue = new ConcurrentLinkedQueue<>();
 
@@ -734,6 +958,15 @@ public class Variables {
 		return false;
 	}
 
+	/**
+	 * @param amount the amount of variables loaded.
+	 * @param duration the time it took to load them, in milliseconds.
+	 * @return the amount of variables loaded per second.
+	 */
+	private static long perSecond(int amount, long duration) {
+		return duration <= 0 ? amount : amount * 1000L / duration;
+	}
+
 	/**
 	 * Stores loaded variables into the variables map
 	 * and the appropriate databases.
@@ -809,6 +1042,10 @@ public class Variables {
 	public static SerializedVariable.@Nullable Value serialize(@Nullable Object value) {
 		assert Bukkit.isPrimaryThread();
 
+		// No need to deserialize a value just to serialize it again
+		if (value instanceof LazyValue)
+			return ((LazyValue) value).serialized;
+
 		return Classes.serialize(value);
 	}
 
@@ -886,12 +1123,7 @@ public class Variables {
 	 * @return the amount of variables.
 	 */
 	public static int numVariables() {
-		try {
-			variablesLock.readLock().lock();
-			return variables.hashMap.size();
-		} finally {
-			variablesLock.readLock().unlock();
-		}
+		return variables.hashMap.size();
 	}
 
 }
@@ -0,0 +1,238 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.variables;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.classes.ClassInfo;
+import ch.njol.skript.classes.Serializer;
+import ch.njol.skript.registrations.Classes;
+import ch.njol.skript.variables.SerializedVariable.Value;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Deserializes variables read by a {@link VariablesStorage} on a pool of worker threads.
+ * <p>
+ * Variables are collected into chunks in the order they are read. Each chunk is deserialized
+ * by a worker, and chunks are handed to {@link Variables#variableLoaded(String, Object, VariablesStorage)}
+ * in their original order on the thread that reads the variables, so later values still replace earlier ones.
+ * Values whose {@link Serializer#mustSyncDeserialization()} is {@code true} are skipped by the workers
+ * and deserialized on the reading thread instead.
+ * <p>
+ * If {@link Variables#lazyDeserialization} is enabled, values are wrapped in {@link LazyValue}s
+ * instead of being deserialized, unless their type must be deserialized on the main thread.
+ * <p>
+ * Instances are not thread-safe and must only be used by the thread reading the variables.
+ */
+final class VariablesLoader {
+
+	/**
+	 * The amount of variables deserialized by a worker at once.
+	 */
+	private static final int CHUNK_SIZE = 1024;
+
+	/**
+	 * The amount of worker threads.
+	 */
+	private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+	/**
+	 * The maximum amount of chunks waiting to be handed to {@link Variables}.
+	 * Limits the memory used when variables are read faster than they can be deserialized.
+	 */
+	private static final int MAX_PENDING_CHUNKS = THREADS * 4;
+
+	private final VariablesStorage storage;
+
+	/**
+	 * The worker pool, only created once the first chunk is full.
+	 */
+	@Nullable
+	private ExecutorService executor;
+
+	private final Deque<Future<Chunk>> pending = new ArrayDeque<>();
+
+	private Chunk current = new Chunk();
+
+	private final List<String> failed = new ArrayList<>();
+
+	/**
+	 * @param storage the storage the variables are loaded from.
+	 */
+	VariablesLoader(VariablesStorage storage) {
+		this.storage = storage;
+	}
+
+	/**
+	 * Queues a variable for deserialization.
+	 *
+	 * @param name the variable name.
+	 * @param type the type of the variable, {@code null} if the variable was deleted.
+	 * @param data the serialized value, {@code null} if the variable was deleted.
+	 */
+	void load(String name, @Nullable String type, byte @Nullable [] data) {
+		Object value = null;
+		if (Variables.lazyDeserialization && type != null && data != null) {
+			ClassInfo<?> classInfo = Classes.getClassInfoNoError(type);
+			Serializer<?> serializer = classInfo == null ? null : classInfo.getSerializer();
+			if (serializer != null && !serializer.mustSyncDeserialization())
+				value = new LazyValue(name, classInfo, new Value(type, data));
+		}
+		current.add(name, type, data, value);
+		if (current.size == CHUNK_SIZE)
+			submit();
+	}
+
+	/**
+	 * Waits for all queued variables to be deserialized and passed to {@link Variables}.
+	 *
+	 * @return the names of all variables that could not be deserialized.
+	 */
+	List<String> finish() {
+		try {
+			if (current.size > 0) {
+				if (pending.isEmpty()) {
+					// Not worth using a worker for a few variables (e.g. changes found by the SQL monitor)
+					current.deserialize();
+					apply(current);
+				} else {
+					submit();
+				}
+			}
+			while (!pending.isEmpty())
+				apply(pending.poll());
+		} finally {
+			if (executor != null)
+				executor.shutdown();
+		}
+		return failed;
+	}
+
+	private void submit() {
+		Chunk chunk = current;
+		current = new Chunk();
+
+		ExecutorService executor = this.executor;
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+				Thread thread = Skript.newThread(runnable, "Skript variable loader for database '" + storage.databaseName + "'");
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.executor = executor;
+		}
+		pending.add(executor.submit(() -> {
+			chunk.deserialize();
+			return chunk;
+		}));
+
+		while (pending.size() > MAX_PENDING_CHUNKS)
+			apply(pending.poll());
+	}
+
+	private void apply(Future<Chunk> future) {
+		Chunk chunk;
+		try {
+			chunk = future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw Skript.exception(e, "Interrupted while loading variables from the database '" + storage.databaseName + "'");
+		} catch (ExecutionException e) {
+			throw Skript.exception(e.getCause(), "Error while loading variables from the database '" + storage.databaseName + "'");
+		}
+		apply(chunk);
+	}
+
+	private void apply(Chunk chunk) {
+		for (int i = 0; i < chunk.size; i++) {
+			String name = chunk.names[i];
+			byte[] data = chunk.data[i];
+			Object value = chunk.values[i];
+			if (data != null && value == null) {
+				// Types that must be deserialized on the main thread were skipped by the workers
+				if (chunk.sync[i])
+					value = deserialize(chunk.types[i], data, true);
+				if (value == null) {
+					failed.add(name);
+					continue;
+				}
+			}
+			Variables.variableLoaded(name, value, storage);
+		}
+	}
+
+	/**
+	 * @param sync whether this is called on the thread the variables are read on.
+	 * @return the value, or {@code null} if it couldn't be deserialized (or must be deserialized on the main thread).
+	 */
+	@Nullable
+	private static Object deserialize(@Nullable String type, byte[] data, boolean sync) {
+		if (type == null)
+			return null;
+		ClassInfo<?> classInfo = Classes.getClassInfoNoError(type);
+		if (classInfo == null)
+			return null;
+		Serializer<?> serializer = classInfo.getSerializer();
+		if (serializer == null || (!sync && serializer.mustSyncDeserialization()))
+			return null;
+		return Classes.deserialize(classInfo, data);
+	}
+
+	/**
+	 * A chunk of variables, deserialized at once.
+	 */
+	private static final class Chunk {
+
+		final String[] names = new String[CHUNK_SIZE];
+		final String[] types = new String[CHUNK_SIZE];
+		final byte[][] data = new byte[CHUNK_SIZE][];
+		final Object[] values = new Object[CHUNK_SIZE];
+		final boolean[] sync = new boolean[CHUNK_SIZE];
+		int size = 0;
+
+		void add(String name, @Nullable String type, byte @Nullable [] data, @Nullable Object value) {
+			names[size] = name;
+			types[size] = type;
+			this.data[size] = data;
+			values[size] = value;
+			size++;
+		}
+
+		void deserialize() {
+			for (int i = 0; i < size; i++) {
+				byte[] data = this.data[i];
+				if (data == null || values[i] != null)
+					continue;
+				values[i] = VariablesLoader.deserialize(types[i], data, false);
+				if (values[i] == null)
+					sync[i] = true; // Retry on the reading thread, which also covers types that must be deserialized there
+			}
+		}
+
+	}
+
+}
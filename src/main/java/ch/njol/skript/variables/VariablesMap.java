@@ -19,14 +19,20 @@
 package ch.njol.skript.variables;
 
 import ch.njol.skript.lang.Variable;
+import ch.njol.util.Pair;
 import ch.njol.util.StringUtils;
 import org.eclipse.jdt.annotation.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A map for storing variables in a sorted and efficient manner.
@@ -37,6 +43,10 @@ final class VariablesMap {
 	 * The comparator for comparing variable names.
 	 */
 	static final Comparator<String> VARIABLE_NAME_COMPARATOR = (s1, s2) -> {
+		// Parts of variable names known in advance are interned, so the matching key is found quickly
+		if (s1 == s2)
+			return 0;
+
 		if (s1 == null)
 			return s2 == null ? 0 : -1;
 
@@ -138,14 +148,100 @@ final class VariablesMap {
 		return 0;
 	};
 
+	/**
+	 * A node of the {@link #treeMap}.
+	 * <p>
+	 * Node may be shared between a map and its {@link #copy() copies}.
+	 * A node may only be modified by the map that owns it, other maps replace it with their own copy first.
+	 */
+	static final class Node extends TreeMap<String, Object> {
+
+		/**
+		 * The {@link #owner} of the map that may modify this node.
+		 */
+		final Object owner;
+
+		/**
+		 * The index of the values of this node, if it's an indexed list that has been searched.
+		 * Not shared with copies of this node.
+		 */
+		@Nullable
+		ListValueIndex valueIndex;
+
+		/**
+		 * The amount of values of this list,
+		 * i.e. of its indices that are set to a value or are sublists that have a value themselves.
+		 */
+		int size;
+
+		/**
+		 * The amount of values in this (sub-)tree, including the value of this node itself and the values of all sublists.
+		 */
+		int recursiveSize;
+
+		Node(Object owner, @Nullable Comparator<String> comparator) {
+			super(comparator);
+			this.owner = owner;
+		}
+
+		/**
+		 * Creates a shallow copy of the given node.
+		 */
+		Node(Object owner, Node original) {
+			super(original);
+			this.owner = owner;
+			this.size = original.size;
+			this.recursiveSize = original.recursiveSize;
+		}
+
+	}
+
+	/**
+	 * Identifies the {@link Node}s this map may modify.
+	 * Replaced whenever this map is copied, as all its nodes are shared with the copy from then on.
+	 */
+	private Object owner = new Object();
+
 	/**
 	 * The map that stores all non-list variables.
+	 * <p>
+	 * This map is concurrent, so that single variables of the global variables map
+	 * can be read without acquiring {@link Variables#variablesLock}.
+	 * It is no longer used once this map has been copied, which never happens for global variables.
 	 */
-	final HashMap<String, Object> hashMap = new HashMap<>();
+	Map<String, Object> hashMap = new ConcurrentHashMap<>();
+
+	/**
+	 * Whether single variables are looked up in the {@link #treeMap} instead of the {@link #hashMap},
+	 * which is the case once this map has been copied or is a copy.
+	 * A shared hash map would have to be copied completely on the first change to either map,
+	 * while only the modified branches of the shared tree have to be copied.
+	 */
+	private boolean treeLookups = false;
+
 	/**
 	 * The tree of variables, branched by the list structure of the variables.
+	 * It is only replaced after this map has been copied, which never happens for global variables.
+	 */
+	TreeMap<String, Object> treeMap = new Node(owner, (Comparator<String>) null);
+
+	/**
+	 * The amount of {@link LazyValue}s in the {@link #treeMap}.
+	 * <p>
+	 * For global variables, this may only be changed while holding the write lock of {@link Variables#variablesLock}.
 	 */
-	final TreeMap<String, Object> treeMap = new TreeMap<>();
+	private int lazyValues = 0;
+
+	/**
+	 * Returns whether this map contains values that have not been deserialized yet.
+	 * List variables of this map may only be read while holding the write lock of {@link Variables#variablesLock}
+	 * if this is {@code true}, as reading them deserializes these values.
+	 *
+	 * @return whether this map contains {@link LazyValue}s.
+	 */
+	boolean hasLazyValues() {
+		return lazyValues > 0;
+	}
 
 	/**
 	 * Returns the internal value of the requested variable.
@@ -157,15 +253,51 @@ final class VariablesMap {
 	 * {@code Map<String, Object>} for a list variable,
 	 * or {@code null} if the variable is not set.
 	 */
-	@SuppressWarnings("unchecked")
 	@Nullable
 	Object getVariable(String name) {
-		if (!name.endsWith("*")) {
+		return getVariable(name, null);
+	}
+
+	/**
+	 * Returns the internal value of the requested variable, like {@link #getVariable(String)}.
+	 *
+	 * @param name the name of the variable, possibly a list variable.
+	 * @param knownSplit the name split into its parts, if it's known in advance.
+	 * @return the internal value of the variable.
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	Object getVariable(String name, @Nullable String[] knownSplit) {
+		if (!name.endsWith("*") && treeLookups) {
+			// Not a list variable, follow the tree branches down to the variable
+			String[] split = knownSplit != null ? knownSplit : Variables.splitVariableName(name);
+			Map<String, Object> parent = treeMap;
+			for (int i = 0; i < split.length - 1; i++) {
+				Object childNode = parent.get(split[i]);
+				if (!(childNode instanceof Map))
+					return null;
+				parent = (Map<String, Object>) childNode;
+			}
+			Object value = parent.get(split[split.length - 1]);
+			if (value instanceof Map)
+				value = ((Map<String, Object>) value).get(null);
+			// Copied maps don't contain lazy values, see copy()
+			assert !(value instanceof LazyValue) : name;
+			return value;
+		} else if (!name.endsWith("*")) {
 			// Not a list variable, quick access from the hash map
-			return hashMap.get(name);
+			Object value = hashMap.get(name);
+			if (value instanceof LazyValue) {
+				LazyValue lazyValue = (LazyValue) value;
+				value = lazyValue.get();
+				// The tree map is updated once the list containing this variable is read
+				if (value != null)
+					hashMap.replace(name, lazyValue, value);
+			}
+			return value;
 		} else {
 			// List variable, search the tree branches
-			String[] split = Variables.splitVariableName(name);
+			String[] split = knownSplit != null ? knownSplit : Variables.splitVariableName(name);
 			Map<String, Object> parent = treeMap;
 
 			// Iterate over the parts of the variable name
@@ -174,6 +306,17 @@ final class VariablesMap {
 				if (n.equals("*")) {
 					// End of variable name, return map
 					assert i == split.length - 1;
+					if (lazyValues > 0) {
+						int removed = resolveLazyValues((TreeMap<String, Object>) parent);
+						if (removed > 0) {
+							// The recursive sizes of the list's parents change as well
+							Map<String, Object> node = treeMap;
+							for (int j = 0; j < i; j++) {
+								((Node) node).recursiveSize -= removed;
+								node = (Map<String, Object>) node.get(split[j]);
+							}
+						}
+					}
 					return parent;
 				}
 
@@ -196,6 +339,26 @@ final class VariablesMap {
 		}
 	}
 
+	/**
+	 * Sets the given non-list variable to the given value in the {@link #hashMap} only,
+	 * leaving the {@link #treeMap} untouched.
+	 * <p>
+	 * This is used to make a change visible to single variable reads before
+	 * the list structure can be updated.
+	 * A call to {@link #setVariable(String, Object)} with the same arguments must follow.
+	 *
+	 * @param name the variable name, must not be a list variable.
+	 * @param value the variable value, {@code null} to delete the variable.
+	 */
+	void setHashMapVariable(String name, @Nullable Object value) {
+		if (name.endsWith("*") || treeLookups)
+			return;
+		if (value == null)
+			hashMap.remove(name);
+		else
+			hashMap.put(name, value);
+	}
+
 	/**
 	 * Sets the given variable to the given value.
 	 * <p>
@@ -205,20 +368,34 @@ final class VariablesMap {
 	 * @param name the variable name.
 	 * @param value the variable value, {@code null} to delete the variable.
 	 */
-	@SuppressWarnings("unchecked")
 	void setVariable(String name, @Nullable Object value) {
+		setVariable(name, null, value);
+	}
+
+	/**
+	 * Sets the given variable to the given value, like {@link #setVariable(String, Object)}.
+	 *
+	 * @param name the variable name.
+	 * @param knownSplit the name split into its parts, if it's known in advance.
+	 * @param value the variable value, {@code null} to delete the variable.
+	 */
+	@SuppressWarnings("unchecked")
+	void setVariable(String name, @Nullable String[] knownSplit, @Nullable Object value) {
 		// First update the hash map easily
-		if (!name.endsWith("*")) {
-			if (value == null)
-				hashMap.remove(name);
-			else
-				hashMap.put(name, value);
-		}
+		setHashMapVariable(name, value);
 
 		// Then update the tree map by going down the branches
-		String[] split = Variables.splitVariableName(name);
+		String[] split = knownSplit != null ? knownSplit : Variables.splitVariableName(name);
+		if (((Node) treeMap).owner != owner)
+			treeMap = new Node(owner, (Node) treeMap);
 		TreeMap<String, Object> parent = treeMap;
 
+		// The nodes from the root down to the changed variable, whose recursive sizes change by the same amount
+		Node[] path = new Node[split.length + 1];
+		int depth = 0;
+		path[depth++] = (Node) parent;
+		int sizeChange = 0;
+
 		// Iterate over the parts of the variable name
 		for (int i = 0; i < split.length; i++) {
 			String childNodeName = split[i];
@@ -228,16 +405,20 @@ final class VariablesMap {
 				// Expected child node not found
 				if (i == split.length - 1) {
 					// End of the variable name reached, set variable if needed
-					if (value != null)
-						parent.put(childNodeName, value);
+					if (value != null) {
+						replaced(parent.put(childNodeName, value), value);
+						valueChanged(parent, childNodeName, null, value);
+						sizeChange = 1;
+					}
 
 					break;
 				} else if (value != null) {
 					// Create child node, add it to parent and continue iteration
-					childNode = new TreeMap<>(VARIABLE_NAME_COMPARATOR);
+					childNode = new Node(owner, VARIABLE_NAME_COMPARATOR);
 
 					parent.put(childNodeName, childNode);
 					parent = (TreeMap<String, Object>) childNode;
+					path[depth++] = (Node) parent;
 				} else {
 					// Want to set variable to null, bu variable is already null
 					break;
@@ -248,10 +429,12 @@ final class VariablesMap {
 
 				if (i == split.length - 1) {
 					// End of variable name reached, adjust child node accordingly
-					if (value == null)
-						childNodeMap.remove(null);
-					else
-						childNodeMap.put(null, value);
+					childNodeMap = own(parent, childNodeName, childNodeMap);
+					Object oldValue = value == null ? childNodeMap.remove(null) : childNodeMap.put(null, value);
+					replaced(oldValue, value);
+					valueChanged(parent, childNodeName, oldValue, value);
+					path[depth++] = (Node) childNodeMap;
+					sizeChange = (value != null ? 1 : 0) - (oldValue != null ? 1 : 0);
 
 					break;
 				} else if (i == split.length - 2 && split[i + 1].equals("*")) {
@@ -269,35 +452,62 @@ final class VariablesMap {
 						parent.remove(childNodeName);
 					else
 						parent.put(childNodeName, currentChildValue);
+					sizeChange = -(((Node) childNodeMap).recursiveSize - (currentChildValue != null ? 1 : 0));
 
 					break;
 				} else {
 					// Continue iteration
-					parent = childNodeMap;
+					parent = own(parent, childNodeName, childNodeMap);
+					path[depth++] = (Node) parent;
 				}
 			} else {
 				// Ran into leaf node
 				if (i == split.length - 1) {
 					// If we arrived at the end of the variable name, update parent
+					Object oldValue = value == null ? parent.remove(childNodeName) : parent.put(childNodeName, value);
+					replaced(oldValue, value);
+					valueChanged(parent, childNodeName, oldValue, value);
 					if (value == null)
-						parent.remove(childNodeName);
-					else
-						parent.put(childNodeName, value);
+						sizeChange = -1;
 
 					break;
 				} else if (value != null) {
 					// Need to continue iteration, create new child node and put old value in it
-					TreeMap<String, Object> newChildNodeMap = new TreeMap<>(VARIABLE_NAME_COMPARATOR);
+					Node newChildNodeMap = new Node(owner, VARIABLE_NAME_COMPARATOR);
 					newChildNodeMap.put(null, childNode);
+					newChildNodeMap.recursiveSize = 1;
 
 					// Add new child node to parent
 					parent.put(childNodeName, newChildNodeMap);
 					parent = newChildNodeMap;
+					path[depth++] = newChildNodeMap;
 				} else {
 					break;
 				}
 			}
 		}
+
+		if (sizeChange != 0) {
+			for (int i = 0; i < depth; i++)
+				path[i].recursiveSize += sizeChange;
+		}
+	}
+
+	/**
+	 * Returns a node this map may modify in place of the given child node,
+	 * copying it into the given parent if it's shared with another map.
+	 *
+	 * @param parent the parent of the child node, which this map may modify.
+	 * @param name the name of the child node in its parent.
+	 * @param node the child node.
+	 * @return the child node, or its copy.
+	 */
+	private TreeMap<String, Object> own(TreeMap<String, Object> parent, String name, TreeMap<String, Object> node) {
+		if (((Node) node).owner == owner)
+			return node;
+		Node copy = new Node(owner, (Node) node);
+		parent.put(name, copy);
+		return copy;
 	}
 
 	/**
@@ -315,57 +525,179 @@ final class VariablesMap {
 			String childName = parent + Variable.SEPARATOR + e.getKey();
 
 			// Remove from hashMap
-			hashMap.remove(childName);
+			if (!treeLookups)
+				hashMap.remove(childName);
 
 			// Recurse if needed
 			Object val = e.getValue();
 			if (val instanceof TreeMap) {
+				replaced(((TreeMap<String, Object>) val).get(null), null);
 				deleteFromHashMap(childName, (TreeMap<String, Object>) val);
+			} else {
+				replaced(val, null);
 			}
 		}
 	}
 
 	/**
-	 * Creates a copy of this map.
+	 * Keeps track of the amount of {@link LazyValue}s in the {@link #treeMap}.
 	 *
-	 * @return the copy.
+	 * @param oldValue the value that was replaced or removed.
+	 * @param newValue the value that replaced it.
 	 */
-	public VariablesMap copy() {
-		VariablesMap copy = new VariablesMap();
+	private void replaced(@Nullable Object oldValue, @Nullable Object newValue) {
+		if (oldValue instanceof LazyValue)
+			lazyValues--;
+		if (newValue instanceof LazyValue)
+			lazyValues++;
+	}
 
-		copy.hashMap.putAll(hashMap);
+	/**
+	 * Keeps the {@link Node#size} and the {@link ListValueIndex} of the given list up to date.
+	 * Lists that are given a {@link LazyValue} lose their index, it's created again once the list is searched.
+	 *
+	 * @param list the list whose value changed.
+	 * @param index the index of the value.
+	 * @param oldValue the value that was replaced or removed.
+	 * @param newValue the value that replaced it.
+	 */
+	private static void valueChanged(TreeMap<String, Object> list, String index, @Nullable Object oldValue, @Nullable Object newValue) {
+		Node node = (Node) list;
+		if (oldValue == null) {
+			if (newValue != null)
+				node.size++;
+		} else if (newValue == null) {
+			node.size--;
+		}
 
-		TreeMap<String, Object> treeMapCopy = copyTreeMap(treeMap);
-		copy.treeMap.putAll(treeMapCopy);
+		ListValueIndex valueIndex = node.valueIndex;
+		if (valueIndex == null)
+			return;
+		if (newValue instanceof LazyValue) {
+			node.valueIndex = null;
+			return;
+		}
+		valueIndex.remove(index, oldValue);
+		valueIndex.add(index, newValue);
+	}
 
-		return copy;
+	/**
+	 * @param name the name of a list variable, ending with {@code ::*}.
+	 * @return whether the list variable can be searched with {@link #findInList(String, String[], Object, boolean)}
+	 * without creating its {@link ListValueIndex}, i.e. it has an index or it doesn't exist.
+	 */
+	boolean isSearchable(String name) {
+		Object list = getVariable(name);
+		return !(list instanceof Node) || ((Node) list).valueIndex != null;
 	}
 
 	/**
-	 * Makes a deep copy of the given {@link TreeMap}.
-	 * <p>
-	 * The 'deep copy' means that each subtree of the given tree is copied
-	 * as well.
+	 * Finds the indices of the given list variable whose values may be equal to the given value,
+	 * using the {@link ListValueIndex} of the list.
 	 *
-	 * @param original the original tree map.
-	 * @return the copy.
+	 * @param name the name of the list variable, ending with {@code ::*}.
+	 * @param knownSplit the name split into its parts, if it's known in advance.
+	 * @param value the value to search for.
+	 * @param createIndex whether the index of the list should be created if it doesn't have one yet,
+	 *                    which modifies this map.
+	 * @return the candidate indices and their internal values (see {@link #getVariable(String)}), sorted by index,
+	 * or {@code null} if the list can't be searched for the given value,
+	 * or if it doesn't have an index and {@code createIndex} is {@code false}.
 	 */
 	@SuppressWarnings("unchecked")
-	private static TreeMap<String, Object> copyTreeMap(TreeMap<String, Object> original) {
-		TreeMap<String, Object> copy = new TreeMap<>(VARIABLE_NAME_COMPARATOR);
+	@Nullable
+	List<Pair<String, Object>> findInList(String name, @Nullable String[] knownSplit, Object value, boolean createIndex) {
+		Object list = getVariable(name, knownSplit);
+		if (!(list instanceof TreeMap))
+			return Collections.emptyList();
+		TreeMap<String, Object> map = (TreeMap<String, Object>) list;
+		Node node = (Node) map;
+
+		ListValueIndex valueIndex = node.valueIndex;
+		if (valueIndex == null) {
+			if (!createIndex || node.owner != owner)
+				return null;
+			// getVariable has resolved the lazy values of the list
+			node.valueIndex = valueIndex = new ListValueIndex(map);
+		}
+
+		Set<String> indices = valueIndex.find(value);
+		if (indices == null)
+			return null;
+		List<Pair<String, Object>> found = new ArrayList<>(indices.size());
+		for (String index : indices)
+			found.add(new Pair<>(index, map.get(index)));
+		if (found.size() > 1)
+			found.sort((a, b) -> VARIABLE_NAME_COMPARATOR.compare(a.getFirst(), b.getFirst()));
+		return found;
+	}
 
-		for (Entry<String, Object> child : original.entrySet()) {
-			String key = child.getKey();
-			Object value = child.getValue();
+	/**
+	 * Deserializes all {@link LazyValue}s in the given (sub-)tree and replaces them with their value,
+	 * removing the ones that cannot be deserialized.
+	 * The recursive sizes of the parents of the tree have to be updated by the caller.
+	 *
+	 * @param map the tree.
+	 * @return the amount of values that have been removed.
+	 */
+	@SuppressWarnings("unchecked")
+	private int resolveLazyValues(TreeMap<String, Object> map) {
+		int removed = 0;
+		Iterator<Entry<String, Object>> iterator = map.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Entry<String, Object> entry = iterator.next();
+			String index = entry.getKey();
+			Object value = entry.getValue();
 
-			// Copy by recursion if the child is a TreeMap
 			if (value instanceof TreeMap) {
-				value = copyTreeMap((TreeMap<String, Object>) value);
+				TreeMap<String, Object> childNodeMap = (TreeMap<String, Object>) value;
+				Object childValue = childNodeMap.get(null);
+				removed += resolveLazyValues(childNodeMap);
+				if (childValue != null && childNodeMap.get(null) == null)
+					valueChanged(map, index, childValue, null);
+				if (childNodeMap.isEmpty())
+					iterator.remove();
+			} else if (value instanceof LazyValue) {
+				LazyValue lazyValue = (LazyValue) value;
+				lazyValues--;
+
+				Object resolved = lazyValue.get();
+				if (resolved == null) {
+					iterator.remove();
+					hashMap.remove(lazyValue.name, lazyValue);
+					removed++;
+				} else {
+					entry.setValue(resolved);
+					hashMap.replace(lazyValue.name, lazyValue, resolved);
+				}
+				if (index != null)
+					valueChanged(map, index, lazyValue, resolved);
 			}
-
-			copy.put(key, value);
 		}
+		((Node) map).recursiveSize -= removed;
+		return removed;
+	}
+
+	/**
+	 * Creates a copy of this map.
+	 * <p>
+	 * This takes constant time, as the copy shares the variables of this map
+	 * until either of them is modified. Only the modified branches are copied then.
+	 * Both maps look up single variables in these branches from then on, see {@link #treeLookups}.
+	 * Maps that are read without being locked (i.e. global variables) must not be copied.
+	 *
+	 * @return the copy.
+	 */
+	public VariablesMap copy() {
+		// Shared nodes must not be modified, which resolving lazy values would do
+		if (lazyValues > 0)
+			resolveLazyValues(treeMap);
 
+		VariablesMap copy = new VariablesMap();
+		copy.hashMap = hashMap = Collections.emptyMap();
+		copy.treeMap = treeMap;
+		copy.treeLookups = treeLookups = true;
+		owner = new Object();
 		return copy;
 	}
 
@@ -20,7 +20,10 @@ package ch.njol.skript.variables;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -85,12 +88,26 @@ public abstract class VariablesStorage implements Closeable {
 	@Nullable
 	private Pattern variableNamePattern;
 
+	/**
+	 * The maximum amount of changes the {@link #writeThread} takes from the {@link #changesQueue} at once
+	 * and passes to {@link #saveBatch(List)}.
+	 * Storages that can write multiple changes efficiently may increase this in {@link #load_i(SectionNode)}.
+	 */
+	protected int batchSize = 1;
+
 	/**
 	 * The thread used for writing variables to the storage.
 	 */
 	// created in the constructor, started in load()
 	private final Thread writeThread;
 
+	/**
+	 * The amount of changes that have been queued but not saved yet,
+	 * including the ones the {@link #writeThread} has taken from the {@link #changesQueue} and is currently saving.
+	 * Incremented before a change is queued, and decremented once {@link #saveBatch(List)} has returned.
+	 */
+	private final AtomicInteger pendingChanges = new AtomicInteger();
+
 	/**
 	 * Creates a new variable storage with the given name.
 	 * <p>
@@ -104,24 +121,53 @@ public abstract class VariablesStorage implements Closeable {
 		databaseName = name;
 
 		writeThread = Skript.newThread(() -> {
+			List<SerializedVariable> batch = new ArrayList<>();
 			while (!closed) {
 				try {
-					// Take a variable from the queue and process it
-					SerializedVariable variable = changesQueue.take();
-					Value value = variable.value;
-
-					// Actually save the variable
-					if (value != null)
-						save(variable.name, value.type, value.data);
-					else
-						save(variable.name, null, null);
+					// Take a variable from the queue, and as many more as the batch size allows
+					batch.add(changesQueue.take());
+					if (batchSize > 1)
+						changesQueue.drainTo(batch, batchSize - 1);
+
+					// Actually save the variables
+					saveBatch(batch);
 				} catch (InterruptedException ignored) {
 					// Ignored as the `closed` field will indicate whether the thread actually needs to stop
+				} finally {
+					pendingChanges.addAndGet(-batch.size());
+					batch.clear();
 				}
 			}
 		}, "Skript variable save thread for database '" + name + "'");
 	}
 
+	/**
+	 * Saves multiple variable changes, in the order they were made.
+	 * <p>
+	 * Called from the {@link #writeThread} with at most {@link #batchSize} changes.
+	 * The default implementation calls {@link #save(String, String, byte[])} for each change.
+	 *
+	 * @param variables the changes to save.
+	 */
+	protected void saveBatch(List<SerializedVariable> variables) {
+		for (SerializedVariable variable : variables) {
+			Value value = variable.value;
+			if (value != null)
+				save(variable.name, value.type, value.data);
+			else
+				save(variable.name, null, null);
+		}
+	}
+
+	/**
+	 * Gets the amount of variable changes waiting to be written to this storage.
+	 *
+	 * @return the size of the changes queue.
+	 */
+	public int getQueueSize() {
+		return changesQueue.size();
+	}
+
 	/**
 	 * Gets the string value at the given key of the given section node.
 	 *
@@ -384,6 +430,7 @@ public abstract class VariablesStorage implements Closeable {
 			lastWarning = System.currentTimeMillis();
 		}
 
+		pendingChanges.incrementAndGet();
 		if (!changesQueue.offer(var)) {
 			// Variable changes queue filled up
 
@@ -419,7 +466,7 @@ public abstract class VariablesStorage implements Closeable {
 	@Override
 	public void close() {
 		// Wait for all variable changes to be processed
-		while (changesQueue.size() > 0) {
+		while (pendingChanges.get() > 0) {
 			try {
 				Thread.sleep(10);
 			} catch (InterruptedException ignored) {}
@@ -437,7 +484,9 @@ public abstract class VariablesStorage implements Closeable {
 	 * after calling this method.
 	 */
 	protected void clearChangesQueue() {
-		changesQueue.clear();
+		List<SerializedVariable> cleared = new ArrayList<>();
+		changesQueue.drainTo(cleared);
+		pendingChanges.addAndGet(-cleared.size());
 	}
 
 	/**
@@ -368,6 +368,30 @@ public abstract class CollectionUtils {
 		return (Class<T[]>) Array.newInstance(c, 0).getClass();
 	}
 
+	/**
+	 * A cache of empty arrays, keyed by their component type.
+	 * The arrays of primitive component types are not {@code Object[]}s, thus the values are {@code Object}s.
+	 */
+	private static final ClassValue<Object> EMPTY_ARRAYS = new ClassValue<Object>() {
+		@Override
+		protected Object computeValue(Class<?> type) {
+			return Array.newInstance(type, 0);
+		}
+	};
+
+	/**
+	 * Returns a shared empty array with the given component type.
+	 * As an empty array can't be modified, this can be used in place of
+	 * {@code Array.newInstance(c, 0)} without allocating a new array each time.
+	 *
+	 * @param c The component type of the array, must not be primitive
+	 * @return An empty array of the given component type
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T[] emptyArray(Class<T> c) {
+		return (T[]) EMPTY_ARRAYS.get(c);
+	}
+
 	/**
 	 * Creates a new array whose elements are the elements between the start and end indices of the original array.
 	 * @param array the original array
@@ -382,7 +406,7 @@ public abstract class CollectionUtils {
 		startIndex = Math.max(startIndex, 0);
 		endIndex = Math.min(Math.max(endIndex, 0), array.length);
 		if (startIndex >= endIndex)
-			return (T[]) Array.newInstance(componentType, 0);
+			return emptyArray(componentType);
 		int size = endIndex - startIndex;
 		T[] subarray = (T[]) Array.newInstance(componentType, size);
 		System.arraycopy(array, startIndex, subarray, 0, size);
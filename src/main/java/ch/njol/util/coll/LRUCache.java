@@ -0,0 +1,189 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.util.coll;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache holding at most a given amount of values, which evicts the least recently used values
+ * once it's full. It keeps statistics about its hits, misses and evictions.
+ * <p>
+ * Lookups don't lock, as values are kept in a {@link ConcurrentHashMap} and only record when they were last used.
+ * Recency is approximate: the {@link #clock} only advances when a value is added, so lookups never write to shared state
+ * except to the entry they find, and only if it hasn't been used since the last insertion.
+ * When the cache has grown past its maximum size, the least recently used quarter of its values is evicted at once,
+ * so the cost of eviction is spread over many insertions.
+ * Null keys and values are not supported.
+ */
+public final class LRUCache<K, V> {
+
+	private static final class Entry<V> {
+
+		final V value;
+		volatile long lastUsed;
+
+		Entry(V value, long lastUsed) {
+			this.value = value;
+			this.lastUsed = lastUsed;
+		}
+
+	}
+
+	private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+	private final int maxSize;
+
+	/**
+	 * The time of the last insertion, which the values used since then are marked with.
+	 */
+	private final AtomicLong clock = new AtomicLong();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param maxSize The maximum amount of values kept in this cache.
+	 */
+	public LRUCache(int maxSize) {
+		if (maxSize <= 0)
+			throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @return The value cached for the given key, or null if there is none.
+	 */
+	@Nullable
+	public V get(K key) {
+		Entry<V> entry = entries.get(key);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		long now = clock.get();
+		if (entry.lastUsed != now)
+			entry.lastUsed = now;
+		return entry.value;
+	}
+
+	/**
+	 * Returns the value cached for the given key, or computes and caches it if there is none.
+	 * The value may be computed more than once if it's requested by multiple threads at the same time,
+	 * in which case the value cached first is returned to all of them.
+	 *
+	 * @param loader Computes the value of a key. Exceptions it throws are passed on, and nothing is cached.
+	 * @return The value cached for the given key.
+	 */
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+		V value = get(key);
+		if (value != null)
+			return value;
+
+		Entry<V> entry = new Entry<>(loader.apply(key), clock.incrementAndGet());
+		Entry<V> previous = entries.putIfAbsent(key, entry);
+		if (previous != null)
+			return previous.value;
+
+		if (entries.size() > maxSize)
+			evict();
+		return entry.value;
+	}
+
+	/**
+	 * Evicts the least recently used quarter of the values, if the cache is still over its maximum size.
+	 */
+	private synchronized void evict() {
+		int size = entries.size();
+		if (size <= maxSize)
+			return;
+
+		// Values used after the threshold was determined are kept, so slightly fewer values may be evicted.
+		// Values used between the same two insertions share their time, of which only as many as needed are evicted.
+		long[] lastUsed = new long[size];
+		int count = 0;
+		for (Entry<V> entry : entries.values()) {
+			if (count == lastUsed.length)
+				break;
+			lastUsed[count++] = entry.lastUsed;
+		}
+		Arrays.sort(lastUsed, 0, count);
+		int toEvict = Math.min(count, size - maxSize + maxSize / 4);
+		if (toEvict == 0)
+			return;
+		long threshold = lastUsed[toEvict - 1];
+
+		int atThreshold = toEvict;
+		for (int i = 0; i < toEvict; i++) {
+			if (lastUsed[i] < threshold)
+				atThreshold--;
+		}
+
+		Iterator<Entry<V>> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			long used = iterator.next().lastUsed;
+			if (used < threshold || used == threshold && atThreshold-- > 0) {
+				iterator.remove();
+				evictions.increment();
+			}
+		}
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Removes all values from this cache, keeping its statistics.
+	 */
+	public void clear() {
+		entries.clear();
+	}
+
+	@Override
+	public String toString() {
+		return size() + "/" + maxSize + " values, " + getHits() + " hits, " + getMisses() + " misses, " + getEvictions() + " evictions";
+	}
+
+}
@@ -0,0 +1,117 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.yggdrasil;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Reads and writes a serializable field using {@link MethodHandle}s, which the JIT can inline
+ * unlike {@link Field#get(Object)} and {@link Field#set(Object, Object)}.
+ * Created once per field by {@link Fields#getAccessors(Class)}.
+ */
+final class FieldAccessor {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	final Field field;
+
+	/**
+	 * The id of the field, see {@link Yggdrasil#getID(Field)}.
+	 */
+	final String id;
+
+	final boolean isPrimitive;
+
+	@Nullable
+	private final MethodHandle getter;
+
+	/**
+	 * {@code null} if the field can only be set with reflection (e.g. final fields on some Java versions).
+	 */
+	@Nullable
+	private final MethodHandle setter;
+
+	/**
+	 * @param field A serializable field, which must be {@link Field#setAccessible(boolean) accessible}.
+	 */
+	FieldAccessor(Field field) {
+		this.field = field;
+		this.id = Yggdrasil.getID(field);
+		this.isPrimitive = field.getType().isPrimitive();
+
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		MethodHandle getter;
+		try {
+			getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+		} catch (IllegalAccessException | RuntimeException e) {
+			getter = null;
+		}
+		this.getter = getter;
+		MethodHandle setter;
+		try {
+			setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+		} catch (IllegalAccessException | RuntimeException e) {
+			setter = null;
+		}
+		this.setter = setter;
+	}
+
+	@Nullable
+	Object get(Object object) throws IllegalAccessException {
+		MethodHandle getter = this.getter;
+		if (getter == null)
+			return field.get(object);
+		try {
+			return (Object) getter.invokeExact(object);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new YggdrasilException(t);
+		}
+	}
+
+	/**
+	 * @throws IllegalArgumentException If the value is not compatible with the field's type,
+	 *                                  as by {@link Field#set(Object, Object)}.
+	 */
+	void set(Object object, @Nullable Object value) throws IllegalAccessException {
+		MethodHandle setter = this.setter;
+		if (setter == null) {
+			field.set(object, value);
+			return;
+		}
+		try {
+			setter.invokeExact(object, value);
+		} catch (ClassCastException e) {
+			// Also covers widening primitive conversions, which only reflection performs
+			field.set(object, value);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new YggdrasilException(t);
+		}
+	}
+
+}
@@ -35,6 +35,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @NotThreadSafe
 public final class Fields implements Iterable<FieldContext> {
@@ -63,6 +64,12 @@ public final class Fields implements Iterable<FieldContext> {
 			isPrimitiveValue = field.getType().isPrimitive();
 		}
 		
+		FieldContext(FieldAccessor accessor, Object object) throws IllegalArgumentException, IllegalAccessException {
+			id = accessor.id;
+			value = accessor.get(object);
+			isPrimitiveValue = accessor.isPrimitive;
+		}
+		
 		public String getID() {
 			return id;
 		}
@@ -147,6 +154,19 @@ public final class Fields implements Iterable<FieldContext> {
 			}
 		}
 		
+		void setField(Object object, FieldAccessor accessor, Yggdrasil yggdrasil) throws StreamCorruptedException {
+			if (accessor.isPrimitive != isPrimitiveValue)
+				throw new StreamCorruptedException("The field " + id + " of " + accessor.field.getDeclaringClass() + " is " + (accessor.isPrimitive ? "" : "not ") + "primitive");
+			try {
+				accessor.set(object, value);
+			} catch (IllegalArgumentException e) {
+				if (!(object instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) object).incompatibleField(accessor.field, this))
+					yggdrasil.incompatibleField(object, accessor.field, this);
+			} catch (IllegalAccessException e) {
+				assert false;
+			}
+		}
+		
 		@Override
 		public int hashCode() {
 			return id.hashCode();
@@ -192,11 +212,8 @@ public final class Fields implements Iterable<FieldContext> {
 	 */
 	public Fields(Class<?> type, Yggdrasil yggdrasil) throws NotSerializableException {
 		this.yggdrasil = yggdrasil;
-		for (Field field : getFields(type)) {
-			assert field != null;
-			String id = Yggdrasil.getID(field);
-			fields.put(id, new FieldContext(id));
-		}
+		for (FieldAccessor accessor : getAccessors(type))
+			fields.put(accessor.id, new FieldContext(accessor.id));
 	}
 	
 	/**
@@ -223,17 +240,18 @@ public final class Fields implements Iterable<FieldContext> {
 		this.yggdrasil = yggdrasil;
 		Class<?> type = object.getClass();
 		assert type != null;
-		for (Field field : getFields(type)) {
-			assert field != null;
+		for (FieldAccessor accessor : getAccessors(type)) {
 			try {
-				fields.put(Yggdrasil.getID(field), new FieldContext(field, object));
+				fields.put(accessor.id, new FieldContext(accessor, object));
 			} catch (IllegalArgumentException | IllegalAccessException e) {
 				assert false;
 			}
 		}
 	}
 	
-	private static final Map<Class<?>, Collection<Field>> cache = new HashMap<>();
+	private static final Map<Class<?>, Collection<Field>> cache = new ConcurrentHashMap<>();
+	
+	private static final Map<Class<?>, FieldAccessor[]> accessorCache = new ConcurrentHashMap<>();
 	
 	/**
 	 * Gets all serializable fields of the provided class, including superclasses.
@@ -268,6 +286,24 @@ public final class Fields implements Iterable<FieldContext> {
 		return fields;
 	}
 	
+	/**
+	 * @param type The class to get the fields of
+	 * @return Accessors for all fields returned by {@link #getFields(Class)}, in the same order
+	 * @throws NotSerializableException If a field occurs more than once
+	 */
+	static FieldAccessor[] getAccessors(Class<?> type) throws NotSerializableException {
+		FieldAccessor[] accessors = accessorCache.get(type);
+		if (accessors != null)
+			return accessors;
+		Collection<Field> fields = getFields(type);
+		accessors = new FieldAccessor[fields.size()];
+		int i = 0;
+		for (Field field : fields)
+			accessors[i++] = new FieldAccessor(field);
+		accessorCache.put(type, accessors);
+		return accessors;
+	}
+	
 	/**
 	 * Sets all fields of the given Object to the values stored in this Fields object.
 	 * 
@@ -278,21 +314,25 @@ public final class Fields implements Iterable<FieldContext> {
 		Yggdrasil yggdrasil = this.yggdrasil;
 		if (yggdrasil == null)
 			throw new YggdrasilException("");
-		Set<FieldContext> excessive = new HashSet<>(fields.values());
 		Class<?> type = object.getClass();
 		assert type != null;
-		for (Field field : getFields(type)) {
-			assert field != null;
-			String id = Yggdrasil.getID(field);
-			FieldContext context = fields.get(id);
+		int set = 0;
+		FieldAccessor[] accessors = getAccessors(type);
+		for (FieldAccessor accessor : accessors) {
+			FieldContext context = fields.get(accessor.id);
 			if (context == null) {
-				if (!(object instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) object).missingField(field))
-					yggdrasil.missingField(object, field);
+				if (!(object instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) object).missingField(accessor.field))
+					yggdrasil.missingField(object, accessor.field);
 			} else {
-				context.setField(object, field, yggdrasil);
+				context.setField(object, accessor, yggdrasil);
+				set++;
 			}
-			excessive.remove(context);
 		}
+		if (set == fields.size())
+			return;
+		Set<FieldContext> excessive = new HashSet<>(fields.values());
+		for (FieldAccessor accessor : accessors)
+			excessive.remove(fields.get(accessor.id));
 		for (FieldContext context : excessive) {
 			assert context != null;
 			if (!(object instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) object).excessiveField(context))
@@ -20,28 +20,42 @@ package org.skriptlang.skript.lang.arithmetic;
 
 import ch.njol.skript.Skript;
 import ch.njol.skript.SkriptAPIException;
-import ch.njol.util.Pair;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnmodifiableView;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public final class Arithmetics {
 
-	private static final Map<Operator, List<OperationInfo<?, ?, ?>>> operations = Collections.synchronizedMap(new HashMap<>());
-	private static final Map<Operator, Map<Pair<Class<?>, Class<?>>, OperationInfo<?, ?, ?>>> cachedOperations = Collections.synchronizedMap(new HashMap<>());
+	/*
+	 * Operations are looked up for every calculation at runtime, so none of these maps lock on reads.
+	 * The registered operations only change while registrations are accepted,
+	 * and the cached ones are keyed by the operand classes without allocating a key for each lookup.
+	 * The caches are owned by Skript instead of being ClassValues, so that server classes don't keep them after a reload.
+	 */
 
-	private static final Map<Class<?>, DifferenceInfo<?, ?>> differences = Collections.synchronizedMap(new HashMap<>());
-	private static final Map<Class<?>, DifferenceInfo<?, ?>> cachedDifferences = Collections.synchronizedMap(new HashMap<>());
+	private static final Map<Operator, List<OperationInfo<?, ?, ?>>> operations = new EnumMap<>(Operator.class);
+	private static final Map<Operator, Map<Class<?>, Map<Class<?>, OperationInfo<?, ?, ?>>>> cachedOperations = new EnumMap<>(Operator.class);
 
-	private static final Map<Class<?>, Supplier<?>> defaultValues = Collections.synchronizedMap(new HashMap<>());
-	private static final Map<Class<?>, Supplier<?>> cachedDefaultValues = Collections.synchronizedMap(new HashMap<>());
+	static {
+		for (Operator operator : Operator.values()) {
+			operations.put(operator, new CopyOnWriteArrayList<>());
+			cachedOperations.put(operator, new ConcurrentHashMap<>());
+		}
+	}
+
+	private static final Map<Class<?>, DifferenceInfo<?, ?>> differences = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, DifferenceInfo<?, ?>> cachedDifferences = new ConcurrentHashMap<>();
+
+	private static final Map<Class<?>, Supplier<?>> defaultValues = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, Supplier<?>> cachedDefaultValues = new ConcurrentHashMap<>();
 
 	public static <T> void registerOperation(Operator operator, Class<T> type, Operation<T, T, T> operation) {
 		registerOperation(operator, type, type, type, operation);
@@ -82,7 +96,7 @@ public final class Arithmetics {
 	}
 
 	private static List<OperationInfo<?, ?, ?>> getOperations_i(Operator operator) {
-		return operations.computeIfAbsent(operator, o -> Collections.synchronizedList(new ArrayList<>()));
+		return operations.get(operator);
 	}
 
 	@UnmodifiableView
@@ -107,15 +121,26 @@ public final class Arithmetics {
 		return null;
 	}
 
-	private static Map<Pair<Class<?>, Class<?>>, OperationInfo<?, ?, ?>> getCachedOperations(Operator operator) {
-		return cachedOperations.computeIfAbsent(operator, o -> Collections.synchronizedMap(new HashMap<>()));
+	/**
+	 * @return the cached operations of the given operator with the given left class, by their right class.
+	 */
+	private static Map<Class<?>, OperationInfo<?, ?, ?>> getCachedOperations(Operator operator, Class<?> leftClass) {
+		Map<Class<?>, Map<Class<?>, OperationInfo<?, ?, ?>>> byLeftClass = cachedOperations.get(operator);
+		Map<Class<?>, OperationInfo<?, ?, ?>> cache = byLeftClass.get(leftClass);
+		if (cache == null)
+			cache = byLeftClass.computeIfAbsent(leftClass, type -> new ConcurrentHashMap<>());
+		return cache;
 	}
 
 	@Nullable
 	@SuppressWarnings("unchecked")
 	public static <L, R> OperationInfo<L, R, ?> getOperationInfo(Operator operator, Class<L> leftClass, Class<R> rightClass) {
 		assertIsOperationsDoneLoading();
-		return (OperationInfo<L, R, ?>) getCachedOperations(operator).computeIfAbsent(new Pair<>(leftClass, rightClass), pair ->
+		Map<Class<?>, OperationInfo<?, ?, ?>> cache = getCachedOperations(operator, leftClass);
+		OperationInfo<?, ?, ?> cached = cache.get(rightClass);
+		if (cached != null)
+			return (OperationInfo<L, R, ?>) cached;
+		return (OperationInfo<L, R, ?>) cache.computeIfAbsent(rightClass, c ->
 			getOperations(operator).stream()
 				.filter(info -> info.getLeft().isAssignableFrom(leftClass) && info.getRight().isAssignableFrom(rightClass))
 				.reduce((info, info2) -> {
@@ -150,7 +175,7 @@ public final class Arithmetics {
 		OperationInfo<L, R, ?> operationInfo = getOperationInfo(operator, leftClass, rightClass);
 		if (operationInfo != null)
 			return operationInfo;
-		return (OperationInfo<L, R, ?>) getCachedOperations(operator).computeIfAbsent(new Pair<>(leftClass, rightClass), pair -> {
+		return (OperationInfo<L, R, ?>) getCachedOperations(operator, leftClass).computeIfAbsent(rightClass, c -> {
 			for (OperationInfo<?, ?, ?> info : getOperations(operator)) {
 				if (!info.getLeft().isAssignableFrom(leftClass) && !info.getRight().isAssignableFrom(rightClass))
 					continue;
@@ -205,6 +230,9 @@ public final class Arithmetics {
 	public static <T> DifferenceInfo<T, ?> getDifferenceInfo(Class<T> type) {
 		if (Skript.isAcceptRegistrations())
 			throw new SkriptAPIException("Differences cannot be retrieved until Skript has finished registrations.");
+		DifferenceInfo<?, ?> cached = cachedDifferences.get(type);
+		if (cached != null)
+			return (DifferenceInfo<T, ?>) cached;
 		return (DifferenceInfo<T, ?>) cachedDifferences.computeIfAbsent(type, c -> {
 			if (differences.containsKey(type))
 				return differences.get(type);
@@ -249,7 +277,10 @@ public final class Arithmetics {
 	public static <R, T extends R> R getDefaultValue(Class<T> type) {
 		if (Skript.isAcceptRegistrations())
 			throw new SkriptAPIException("Default values cannot be retrieved until Skript has finished registrations.");
-		Supplier<R> supplier = (Supplier<R>) cachedDefaultValues.computeIfAbsent(type, c -> {
+		Supplier<R> supplier = (Supplier<R>) cachedDefaultValues.get(type);
+		if (supplier != null)
+			return supplier.get();
+		supplier = (Supplier<R>) cachedDefaultValues.computeIfAbsent(type, c -> {
 			if (defaultValues.containsKey(type))
 				return defaultValues.get(type);
 			for (Map.Entry<Class<?>, Supplier<?>> entry : defaultValues.entrySet()) {
@@ -21,7 +21,6 @@ package org.skriptlang.skript.lang.comparator;
 import ch.njol.skript.Skript;
 import ch.njol.skript.SkriptAPIException;
 import ch.njol.skript.util.Utils;
-import ch.njol.util.Pair;
 import org.eclipse.jdt.annotation.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 import org.skriptlang.skript.lang.converter.Converter;
@@ -30,9 +29,9 @@ import org.skriptlang.skript.lang.converter.Converters;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Comparators are used to provide Skript with specific instructions for comparing two objects.
@@ -71,11 +70,22 @@ public final class Comparators {
 	}
 
 	/**
-	 * A map for quickly accessing comparators that have already been resolved.
-	 * Some pairs may point to a null value, indicating that no comparator exists between the two types.
+	 * A map for quickly accessing comparators that have already been resolved, by their first and second type.
+	 * Some pairs may point to {@link #NO_COMPARATOR}, indicating that no comparator exists between the two types.
 	 * This is useful for skipping complex lookups that may require conversion and inversion.
+	 * Lookups neither lock nor allocate, as they are made for many comparisons at runtime.
+	 * This isn't a {@link ClassValue}, see {@link org.skriptlang.skript.lang.converter.Converters}.
 	 */
-	private static final Map<Pair<Class<?>, Class<?>>, ComparatorInfo<?, ?>> QUICK_ACCESS_COMPARATORS = new HashMap<>(50);
+	private static final Map<Class<?>, Map<Class<?>, ComparatorInfo<?, ?>>> QUICK_ACCESS_COMPARATORS = new ConcurrentHashMap<>();
+
+	/**
+	 * Marks pairs of types in {@link #QUICK_ACCESS_COMPARATORS} that no comparator exists for.
+	 */
+	private static final ComparatorInfo<?, ?> NO_COMPARATOR = new ComparatorInfo<>(
+		Object.class,
+		Object.class,
+		(o1, o2) -> Relation.NOT_EQUAL
+	);
 
 	/**
 	 * Registers a new Comparator with Skript's collection of Comparators.
@@ -199,19 +209,21 @@ public final class Comparators {
 	public static <T1, T2> ComparatorInfo<T1, T2> getComparatorInfo(Class<T1> firstType, Class<T2> secondType) {
 		assertIsDoneLoading();
 
-		Pair<Class<?>, Class<?>> pair = new Pair<>(firstType, secondType);
-		ComparatorInfo<T1, T2> comparator;
-
-		synchronized (QUICK_ACCESS_COMPARATORS) {
-			if (QUICK_ACCESS_COMPARATORS.containsKey(pair)) {
-				comparator = (ComparatorInfo<T1, T2>) QUICK_ACCESS_COMPARATORS.get(pair);
-			} else { // Compute QUICK_ACCESS for provided types
-				comparator = getComparatorInfo_i(firstType, secondType);
-				QUICK_ACCESS_COMPARATORS.put(pair, comparator);
-			}
+		Map<Class<?>, ComparatorInfo<?, ?>> comparators = QUICK_ACCESS_COMPARATORS.get(firstType);
+		if (comparators == null)
+			comparators = QUICK_ACCESS_COMPARATORS.computeIfAbsent(firstType, type -> new ConcurrentHashMap<>());
+		ComparatorInfo<?, ?> comparator = comparators.get(secondType);
+		if (comparator == null) { // Compute QUICK_ACCESS for provided types
+			comparator = getComparatorInfo_i(firstType, secondType);
+			if (comparator == null)
+				comparator = NO_COMPARATOR;
+			// Another thread may have resolved the same pair in the meantime
+			ComparatorInfo<?, ?> existing = comparators.putIfAbsent(secondType, comparator);
+			if (existing != null)
+				comparator = existing;
 		}
 
-		return comparator;
+		return comparator == NO_COMPARATOR ? null : (ComparatorInfo<T1, T2>) comparator;
 	}
 
 	/**
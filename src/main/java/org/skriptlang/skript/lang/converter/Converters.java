@@ -20,7 +20,7 @@ package org.skriptlang.skript.lang.converter;
 
 import ch.njol.skript.Skript;
 import ch.njol.skript.SkriptAPIException;
-import ch.njol.util.Pair;
+import ch.njol.util.coll.CollectionUtils;
 import org.eclipse.jdt.annotation.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
@@ -28,9 +28,9 @@ import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Converters are used to provide Skript with specific instructions for converting an object to a different type.
@@ -58,11 +58,19 @@ public final class Converters {
 	}
 
 	/**
-	 * A map for quickly access converters that have already been resolved.
-	 * Some pairs may point to a null value, indicating that no converter exists between the two types.
+	 * Quick access to converters that have already been resolved, by 'from' type and then by 'to' type.
+	 * Some pairs may point to {@link #NO_CONVERTER}, indicating that no converter exists between the two types.
 	 * This is useful for skipping complex lookups that may require chaining.
+	 * Lookups neither lock nor allocate, as they are made for every conversion at runtime.
+	 * This isn't a {@link ClassValue}, as its values would be kept by the classes of the server,
+	 * and with them Skript's class loader after Skript has been disabled.
 	 */
-	private static final Map<Pair<Class<?>, Class<?>>, ConverterInfo<?, ?>> QUICK_ACCESS_CONVERTERS = new HashMap<>(50);
+	private static final Map<Class<?>, Map<Class<?>, ConverterInfo<?, ?>>> QUICK_ACCESS_CONVERTERS = new ConcurrentHashMap<>();
+
+	/**
+	 * Marks pairs of types in {@link #QUICK_ACCESS_CONVERTERS} that no converter exists for.
+	 */
+	private static final ConverterInfo<?, ?> NO_CONVERTER = new ConverterInfo<>(Object.class, Object.class, object -> null, Converter.NO_CHAINING);
 
 	/**
 	 * Registers a new Converter with Skript's collection of Converters.
@@ -244,19 +252,21 @@ public final class Converters {
 	public static <F, T> ConverterInfo<F, T> getConverterInfo(Class<F> fromType, Class<T> toType) {
 		assertIsDoneLoading();
 
-		Pair<Class<?>, Class<?>> pair = new Pair<>(fromType, toType);
-		ConverterInfo<F, T> converter;
-
-		synchronized (QUICK_ACCESS_CONVERTERS) {
-			if (QUICK_ACCESS_CONVERTERS.containsKey(pair)) {
-				converter = (ConverterInfo<F, T>) QUICK_ACCESS_CONVERTERS.get(pair);
-			} else { // Compute QUICK_ACCESS for provided types
-				converter = getConverterInfo_i(fromType, toType);
-				QUICK_ACCESS_CONVERTERS.put(pair, converter);
-			}
+		Map<Class<?>, ConverterInfo<?, ?>> converters = QUICK_ACCESS_CONVERTERS.get(fromType);
+		if (converters == null)
+			converters = QUICK_ACCESS_CONVERTERS.computeIfAbsent(fromType, type -> new ConcurrentHashMap<>());
+		ConverterInfo<?, ?> converter = converters.get(toType);
+		if (converter == null) { // Compute QUICK_ACCESS for provided types
+			converter = getConverterInfo_i(fromType, toType);
+			if (converter == null)
+				converter = NO_CONVERTER;
+			// Another thread may have resolved the same pair in the meantime
+			ConverterInfo<?, ?> existing = converters.putIfAbsent(toType, converter);
+			if (existing != null)
+				converter = existing;
 		}
 
-		return converter;
+		return converter == NO_CONVERTER ? null : (ConverterInfo<F, T>) converter;
 	}
 
 	/**
@@ -428,7 +438,7 @@ public final class Converters {
 	public static <To> To[] convert(Object @Nullable [] from, Class<To> toType) {
 		assertIsDoneLoading();
 		if (from == null) {
-			return (To[]) Array.newInstance(toType, 0);
+			return CollectionUtils.emptyArray(toType);
 		}
 
 		if (toType.isAssignableFrom(from.getClass().getComponentType())) {
@@ -460,7 +470,7 @@ public final class Converters {
 	public static <To> To[] convert(Object @Nullable [] from, Class<? extends To>[] toTypes, Class<To> superType) {
 		assertIsDoneLoading();
 		if (from == null) {
-			return (To[]) Array.newInstance(superType, 0);
+			return CollectionUtils.emptyArray(superType);
 		}
 
 		Class<?> fromType = from.getClass().getComponentType();
@@ -24,6 +24,7 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Unmodifiable;
 import org.skriptlang.skript.lang.structure.Structure;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -41,7 +42,7 @@ import java.util.stream.Collectors;
  */
 public final class Script {
 
-	private final Config config;
+	private Config config;
 
 	private final List<Structure> structures;
 
@@ -72,6 +73,20 @@ public final class Script {
 		return Collections.unmodifiableList(structures);
 	}
 
+	/**
+	 * Prepares this Script for being reloaded incrementally, keeping only the provided Structures.
+	 * Suppressed warnings are kept, as the Structures that suppressed them may be kept without being parsed again.
+	 * @param config The Config this Script is reloaded from.
+	 * @param keptStructures The Structures of this Script that remain loaded.
+	 * @return A modifiable version of the list of Structures, which the newly loaded Structures should be added to.
+	 */
+	@ApiStatus.Internal
+	public List<Structure> reload(Config config, Collection<Structure> keptStructures) {
+		this.config = config;
+		structures.retainAll(keptStructures);
+		return structures;
+	}
+
 	// Warning Suppressions
 
 	private final Set<ScriptWarning> suppressedWarnings = new HashSet<>(ScriptWarning.values().length);
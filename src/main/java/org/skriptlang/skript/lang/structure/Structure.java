@@ -158,6 +158,17 @@ public abstract class Structure implements SyntaxElement, Debuggable {
 	 */
 	public void postUnload() { }
 
+	/**
+	 * Whether this Structure may be kept loaded when its script is reloaded incrementally and its source hasn't changed,
+	 *  instead of being unloaded and loaded again.
+	 * Structures that other Structures of their script depend on while parsing (e.g. options) must not be kept,
+	 *  and neither should Structures that are expected to do something whenever their script is reloaded.
+	 * @return Whether this Structure may be kept loaded. By default, this is false.
+	 */
+	public boolean isReusable() {
+		return false;
+	}
+
 	/**
 	 * The priority of a Structure determines the order in which it should be loaded.
 	 * For more information, see the javadoc of {@link Priority}.
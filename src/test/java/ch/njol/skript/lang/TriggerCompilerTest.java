@@ -0,0 +1,174 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.lang;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.Test;
+
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.util.Kleenean;
+
+public class TriggerCompilerTest {
+
+	private static final Event EVENT = new Event() {
+		@Override
+		public HandlerList getHandlers() {
+			throw new UnsupportedOperationException();
+		}
+	};
+
+	private static class TestEffect extends Effect {
+
+		private final List<String> log;
+		private final String name;
+
+		TestEffect(List<String> log, String name) {
+			this.log = log;
+			this.name = name;
+		}
+
+		@Override
+		protected void execute(Event event) {
+			log.add(name);
+		}
+
+		@Override
+		public boolean init(Expression<?>[] exprs, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+			return true;
+		}
+
+		@Override
+		public String toString(@Nullable Event event, boolean debug) {
+			return name;
+		}
+
+	}
+
+	private static class TestCondition extends Condition {
+
+		private final List<String> log;
+		private final String name;
+		private final boolean result;
+
+		TestCondition(List<String> log, String name, boolean result) {
+			this.log = log;
+			this.name = name;
+			this.result = result;
+		}
+
+		@Override
+		public boolean check(Event event) {
+			log.add(name);
+			return result;
+		}
+
+		@Override
+		public boolean init(Expression<?>[] exprs, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+			return true;
+		}
+
+		@Override
+		public String toString(@Nullable Event event, boolean debug) {
+			return name;
+		}
+
+	}
+
+	private static class TestSection extends TriggerSection {
+
+		private final boolean run;
+
+		TestSection(boolean run, List<TriggerItem> items) {
+			super(items);
+			this.run = run;
+		}
+
+		@Override
+		@Nullable
+		protected TriggerItem walk(Event event) {
+			return walk(event, run);
+		}
+
+		@Override
+		public String toString(@Nullable Event event, boolean debug) {
+			return "section";
+		}
+
+	}
+
+	/**
+	 * Links the given items like {@link ch.njol.skript.ScriptLoader#loadItems(ch.njol.skript.config.SectionNode)} does.
+	 */
+	private static List<TriggerItem> chain(List<TriggerItem> items) {
+		for (int i = 0; i < items.size() - 1; i++)
+			items.get(i).setNext(items.get(i + 1));
+		return items;
+	}
+
+	/**
+	 * A trigger with effects and conditions around sections, some of which stop their section.
+	 */
+	private static TestSection createTrigger(List<String> log, int length) {
+		List<TriggerItem> conditional = chain(Arrays.asList(
+			new TestEffect(log, "a"),
+			new TestCondition(log, "passes", true),
+			new TestEffect(log, "b"),
+			new TestCondition(log, "fails", false),
+			new TestEffect(log, "skipped")
+		));
+		List<TriggerItem> items = new ArrayList<>();
+		items.add(new TestEffect(log, "first"));
+		items.add(new TestEffect(log, "second"));
+		items.add(new TestSection(true, conditional));
+		items.add(new TestEffect(log, "after section"));
+		items.add(new TestSection(false, chain(Arrays.asList(new TestEffect(log, "not run"), new TestEffect(log, "not run either")))));
+		for (int i = 0; i < length; i++)
+			items.add(new TestEffect(log, "effect " + i));
+
+		return new TestSection(true, chain(items));
+	}
+
+	@Test
+	public void testCompiledWalk() {
+		List<String> interpreted = new ArrayList<>();
+		TriggerItem.walk(createTrigger(interpreted, 40), EVENT);
+
+		List<String> compiled = new ArrayList<>();
+		TestSection trigger = createTrigger(compiled, 40);
+		TriggerCompiler.compile(trigger);
+		TriggerItem first = trigger.first;
+		assertNotNull(first);
+		assertNotNull("consecutive effects should be compiled", first.compiled);
+		assertNull("sections should not be compiled", first.getNext().getNext().compiled);
+		TriggerItem.walk(trigger, EVENT);
+
+		assertEquals(interpreted, compiled);
+	}
+
+}
@@ -0,0 +1,103 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class TimingWheelTest {
+
+	private static final long REVOLUTION = 64;
+
+	private final TimingWheel wheel = new TimingWheel();
+
+	/**
+	 * The amount of ticks the wheel has advanced by.
+	 */
+	private long tick = 0;
+
+	private void advance(long ticks) {
+		for (long i = 0; i < ticks; i++) {
+			tick++;
+			wheel.tick();
+		}
+	}
+
+	/**
+	 * Schedules a task for each of the given delays, advances the wheel until all of them are due,
+	 * and checks that each task ran exactly at its deadline.
+	 */
+	private void assertRunsOnTime(long... delays) {
+		long start = tick;
+		long[] ranAt = new long[delays.length];
+		Arrays.fill(ranAt, -1);
+		for (int i = 0; i < delays.length; i++) {
+			int task = i;
+			wheel.schedule(() -> {
+				assertEquals("task with a delay of " + delays[task] + " ran twice", -1, ranAt[task]);
+				ranAt[task] = tick;
+			}, delays[i]);
+		}
+		assertEquals(delays.length, wheel.size());
+
+		advance(Arrays.stream(delays).max().orElse(0) + 1);
+		for (int i = 0; i < delays.length; i++)
+			assertEquals("task with a delay of " + delays[i] + " scheduled at " + start, start + Math.max(delays[i], 1), ranAt[i]);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	public void testPlacement() {
+		// Delays around the boundaries between the levels
+		assertRunsOnTime(0, 1, 2, 63, 64, 65, 127, 128, 4095, 4096, 4097, 262143, 262144, 262145);
+	}
+
+	@Test
+	public void testWrapAround() {
+		// Starting in the middle of a revolution of each level, so that deadlines wrap around to the first slots
+		advance(REVOLUTION * REVOLUTION * REVOLUTION - REVOLUTION / 2 - 3);
+		long[] delays = new long[300];
+		for (int i = 0; i < delays.length; i++)
+			delays[i] = i + 1;
+		assertRunsOnTime(delays);
+		assertRunsOnTime(4000, 4096, 4200, 262000, 262144, 262200);
+	}
+
+	@Test
+	public void testFullRevolution() {
+		// Tasks scheduled exactly one revolution of a level ahead, both at the start of a revolution and in between
+		for (long offset : new long[] {0, 1, 37, REVOLUTION - 1}) {
+			advance(offset);
+			assertRunsOnTime(REVOLUTION, REVOLUTION * REVOLUTION, REVOLUTION * REVOLUTION * REVOLUTION);
+			advance(REVOLUTION * REVOLUTION * REVOLUTION - tick % (REVOLUTION * REVOLUTION * REVOLUTION));
+		}
+	}
+
+	@Test
+	public void testOverflow() {
+		// Delays longer than the highest level covers are kept until they are in range
+		long range = REVOLUTION * REVOLUTION * REVOLUTION * REVOLUTION;
+		advance(12345);
+		assertRunsOnTime(range - 1, range, range + 1, range + REVOLUTION * REVOLUTION + 7, 2 * range + 3);
+	}
+
+}
@@ -0,0 +1,266 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.variables;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.njol.skript.variables.SerializedVariable.Value;
+
+public class BinaryFileStorageTest {
+
+	@Nullable
+	private File directory;
+
+	@Before
+	public void createDirectory() throws IOException {
+		directory = Files.createTempDirectory("skript-variables").toFile();
+	}
+
+	@After
+	public void deleteDirectory() {
+		File directory = this.directory;
+		if (directory == null)
+			return;
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (File file : files)
+				assertTrue(file.delete());
+		}
+		assertTrue(directory.delete());
+	}
+
+	private File file(String name) {
+		assert directory != null;
+		return new File(directory, name);
+	}
+
+	private static Value value(String type, String data) {
+		return new Value(type, data.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Writes a header and the given records, with {@code null} values deleting the variable.
+	 */
+	private static byte[] write(Object... namesAndValues) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		BinaryFileStorage.writeHeader(output);
+		writeRecords(output, new HashMap<>(), namesAndValues);
+		output.flush();
+		return bytes.toByteArray();
+	}
+
+	private static void writeRecords(DataOutputStream output, Map<String, Integer> types, Object... namesAndValues) throws IOException {
+		for (int i = 0; i < namesAndValues.length; i += 2)
+			BinaryFileStorage.writeRecord(output, (String) namesAndValues[i], (Value) namesAndValues[i + 1], types);
+	}
+
+	private static Map<String, SerializedVariable> read(File file, List<String> types, boolean incomplete) throws IOException {
+		Map<String, SerializedVariable> records = new LinkedHashMap<>();
+		assertEquals(incomplete, BinaryFileStorage.readLog(file, records, types));
+		return records;
+	}
+
+	private static Map<String, SerializedVariable> readSegments(File file) throws IOException {
+		Map<String, SerializedVariable> records = new HashMap<>();
+		for (int segment = 0; segment < BinaryFileStorage.SEGMENTS; segment++) {
+			File segmentFile = BinaryFileStorage.getSegmentFile(file, segment);
+			if (!segmentFile.exists())
+				continue;
+			for (SerializedVariable variable : read(segmentFile, new ArrayList<>(), false).values()) {
+				assertEquals(variable.name, segment, BinaryFileStorage.getSegment(variable.name));
+				records.put(variable.name, variable);
+			}
+		}
+		return records;
+	}
+
+	private static void assertRecord(Map<String, SerializedVariable> records, String name, @Nullable String type, @Nullable String data) {
+		assertTrue(name, records.containsKey(name));
+		Value value = records.get(name).value;
+		if (type == null) {
+			assertNull(name, value);
+			return;
+		}
+		assert value != null : name;
+		assertEquals(name, type, value.type);
+		assertArrayEquals(name, data.getBytes(StandardCharsets.UTF_8), value.data);
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		File log = file("variables.dat.log");
+		Files.write(log.toPath(), write(
+				"a", value("string", "first"),
+				"b", value("long", "12345678"),
+				"c", value("string", ""),
+				"a", value("string", "second"),
+				"b", null,
+				"unicode ☃", value("boolean", "\u0001")));
+
+		List<String> types = new ArrayList<>();
+		Map<String, SerializedVariable> records = read(log, types, false);
+		assertEquals(Arrays.asList("string", "long", "boolean"), types);
+		assertEquals(Arrays.asList("c", "a", "b", "unicode ☃"), new ArrayList<>(records.keySet()));
+		assertRecord(records, "a", "string", "second");
+		assertRecord(records, "b", null, null);
+		assertRecord(records, "c", "string", "");
+		assertRecord(records, "unicode ☃", "boolean", "\u0001");
+
+		// A value long enough to need a multi-byte length
+		char[] data = new char[100_000];
+		Arrays.fill(data, 'x');
+		Files.write(log.toPath(), write("long", value("string", new String(data))));
+		assertRecord(read(log, new ArrayList<>(), false), "long", "string", new String(data));
+	}
+
+	@Test
+	public void testTornTail() throws IOException {
+		File log = file("variables.dat.log");
+		byte[] complete = write("a", value("string", "a"), "b", value("string", "b"));
+
+		// The last record is cut off, and it introduces a type that must be removed with it
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		Map<String, Integer> types = new HashMap<>();
+		types.put("string", 0);
+		writeRecords(output, types, "c", value("long", "cut off"));
+		output.flush();
+		byte[] torn = bytes.toByteArray();
+		// The kind, length and name of the type record, which is complete on its own
+		int typeRecordLength = 2 + "long".length();
+
+		for (int length = 1; length < torn.length; length++) {
+			if (length == typeRecordLength)
+				continue;
+			try (FileOutputStream out = new FileOutputStream(log)) {
+				out.write(complete);
+				out.write(torn, 0, length);
+			}
+
+			List<String> readTypes = new ArrayList<>();
+			Map<String, SerializedVariable> records = read(log, readTypes, true);
+			assertEquals(Collections.singletonList("string"), readTypes);
+			assertEquals(Arrays.asList("a", "b"), new ArrayList<>(records.keySet()));
+			assertEquals("incomplete record was not truncated", complete.length, log.length());
+
+			// Changes appended afterwards must be readable, just like they are appended by the storage
+			try (DataOutputStream append = new DataOutputStream(new FileOutputStream(log, true))) {
+				Map<String, Integer> logTypes = new HashMap<>();
+				for (int i = 0; i < readTypes.size(); i++)
+					logTypes.put(readTypes.get(i), i);
+				writeRecords(append, logTypes, "c", value("long", "appended"), "d", value("string", "d"));
+			}
+			records = read(log, new ArrayList<>(), false);
+			assertEquals(Arrays.asList("a", "b", "c", "d"), new ArrayList<>(records.keySet()));
+			assertRecord(records, "c", "long", "appended");
+			assertRecord(records, "d", "string", "d");
+		}
+
+		// A log cut off within its header is emptied
+		Files.write(log.toPath(), Arrays.copyOf(complete, 3));
+		assertTrue(read(log, new ArrayList<>(), true).isEmpty());
+		assertEquals(0, log.length());
+	}
+
+	@Test
+	public void testCompaction() throws IOException {
+		File file = file("variables.dat");
+		File log = file("variables.dat.compacting.log");
+
+		// Compacting into a snapshot that doesn't exist yet
+		Files.write(log.toPath(), write(
+				"a", value("string", "a"),
+				"b", value("long", "b"),
+				"c", value("string", "c")));
+		BinaryFileStorage.merge(file, log);
+		assertFalse(log.exists());
+		Map<String, SerializedVariable> records = readSegments(file);
+		assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), records.keySet());
+		for (int segment = 0; segment < BinaryFileStorage.SEGMENTS; segment++) {
+			File segmentFile = BinaryFileStorage.getSegmentFile(file, segment);
+			assertFalse(segmentFile.getName() + ".temp", new File(directory, segmentFile.getName() + ".temp").exists());
+			boolean used = segment == BinaryFileStorage.getSegment("a") || segment == BinaryFileStorage.getSegment("b")
+					|| segment == BinaryFileStorage.getSegment("c");
+			assertEquals(segmentFile.getName(), used, segmentFile.exists());
+		}
+
+		// Changes, deletions and new variables of the log replace the snapshot's, even with different type numbers
+		File segmentA = BinaryFileStorage.getSegmentFile(file, BinaryFileStorage.getSegment("a"));
+		byte[] segmentABytes = Files.readAllBytes(segmentA.toPath());
+		Files.write(log.toPath(), write(
+				"d", value("boolean", "d"),
+				"b", value("string", "changed b"),
+				"c", null,
+				"e", null));
+		BinaryFileStorage.merge(file, log);
+		assertFalse(log.exists());
+		records = readSegments(file);
+		assertEquals(new HashSet<>(Arrays.asList("a", "b", "d")), records.keySet());
+		assertRecord(records, "a", "string", "a");
+		assertRecord(records, "b", "string", "changed b");
+		assertRecord(records, "d", "boolean", "d");
+		// Segments without changes are not rewritten ("a" to "e" are all in different segments)
+		assertArrayEquals(segmentABytes, Files.readAllBytes(segmentA.toPath()));
+
+		// A torn log is merged without its incomplete record
+		byte[] bytes = write("a", value("string", "new a"), "f", value("string", "f"));
+		Files.write(log.toPath(), Arrays.copyOf(bytes, bytes.length - 1));
+		BinaryFileStorage.merge(file, log);
+		records = readSegments(file);
+		assertEquals(new HashSet<>(Arrays.asList("a", "b", "d")), records.keySet());
+		assertRecord(records, "a", "string", "new a");
+
+		// Merging a log again after an interrupted compaction gives the same result
+		Files.write(log.toPath(), write("b", null, "g", value("string", "g")));
+		byte[] logBytes = Files.readAllBytes(log.toPath());
+		BinaryFileStorage.merge(file, log);
+		Files.write(log.toPath(), logBytes);
+		BinaryFileStorage.merge(file, log);
+		records = readSegments(file);
+		assertEquals(new HashSet<>(Arrays.asList("a", "d", "g")), records.keySet());
+		assertRecord(records, "g", "string", "g");
+	}
+
+}
@@ -0,0 +1,92 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.variables;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+public class ListValueIndexTest {
+
+	private static ListValueIndex index(Object... indicesAndValues) {
+		TreeMap<String, Object> list = new TreeMap<>(VariablesMap.VARIABLE_NAME_COMPARATOR);
+		for (int i = 0; i < indicesAndValues.length; i += 2)
+			list.put((String) indicesAndValues[i], indicesAndValues[i + 1]);
+		return new ListValueIndex(list);
+	}
+
+	private static void assertFound(ListValueIndex index, Object value, String... indices) {
+		assertEquals(String.valueOf(value), new HashSet<>(Arrays.asList(indices)), index.find(value));
+	}
+
+	@Test
+	public void testFind() {
+		ListValueIndex index = index("1", "Text", "2", "text", "3", 1L, "4", 1.5, "5", true, "6", 2.0);
+
+		// Texts are found ignoring case
+		assertFound(index, "TEXT", "1", "2");
+		assertFound(index, "other");
+
+		// Numbers are found by their whole part, and the candidates are compared by the caller
+		assertFound(index, 1.2, "3", "4");
+		assertFound(index, 2.5, "6");
+		assertFound(index, Double.NaN);
+
+		// Whole numbers may be equal to numbers just below them
+		assertFound(index, 2L, "3", "4", "6");
+
+		assertFound(index, true, "5");
+		assertFound(index, false);
+
+		// Values that can't be indexed can't be searched for
+		assertNull(index.find(new Object()));
+	}
+
+	@Test
+	public void testChanges() {
+		ListValueIndex index = index("a", "x", "b", "X");
+
+		index.remove("a", "x");
+		index.add("a", 5L);
+		assertFound(index, "x", "b");
+		assertFound(index, 5, "a");
+
+		// The index can't be searched while the list contains a value that isn't indexed
+		Object other = new Object();
+		index.add("c", other);
+		assertNull(index.find("x"));
+		index.remove("c", other);
+		assertFound(index, "x", "b");
+
+		// NaN is never equal to anything, so it doesn't prevent searching
+		index.add("d", Double.NaN);
+		assertFound(index, "x", "b");
+
+		// Sublists without a value of their own are not indexed
+		index.add("e", null);
+		assertEquals(Collections.singleton("b"), index.find("x"));
+	}
+
+}
@@ -0,0 +1,197 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.variables;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import ch.njol.skript.lang.Variable;
+import ch.njol.util.Pair;
+
+public class VariablesMapTest {
+
+	private static final String[] NAMES = {"a", "b", "c", "1", "2", "10"};
+
+	private static final Object[] VALUES = {"a", "A", "b", 1L, 2L, 1.0, 2.5, true, false};
+
+	/**
+	 * Sets random variables of a few levels of nested lists, in the given map and in the given expected values.
+	 */
+	private static void modify(VariablesMap map, Map<String, Object> expected, Random random, int changes) {
+		for (int i = 0; i < changes; i++) {
+			StringBuilder name = new StringBuilder("list");
+			int depth = 1 + random.nextInt(3);
+			for (int j = 0; j < depth; j++)
+				name.append(Variable.SEPARATOR).append(NAMES[random.nextInt(NAMES.length)]);
+			String variable = name.toString();
+
+			if (random.nextInt(10) == 0) {
+				// Delete a whole list
+				String list = variable + Variable.SEPARATOR + "*";
+				map.setVariable(list, null);
+				expected.keySet().removeIf(key -> key.startsWith(variable + Variable.SEPARATOR));
+			} else if (random.nextInt(4) == 0) {
+				map.setVariable(variable, null);
+				expected.remove(variable);
+			} else {
+				Object value = VALUES[random.nextInt(VALUES.length)];
+				map.setVariable(variable, value);
+				expected.put(variable, value);
+			}
+		}
+	}
+
+	private static void assertContent(VariablesMap map, Map<String, Object> expected) {
+		for (Entry<String, Object> entry : expected.entrySet())
+			assertEquals(entry.getKey(), entry.getValue(), map.getVariable(entry.getKey()));
+
+		// Every list and sublist, with its expected sizes
+		Set<String> lists = new HashSet<>();
+		for (String name : expected.keySet()) {
+			for (int i = name.indexOf(Variable.SEPARATOR); i != -1; i = name.indexOf(Variable.SEPARATOR, i + 1))
+				lists.add(name.substring(0, i));
+		}
+		lists.add("list");
+		for (String name : lists) {
+			String prefix = name + Variable.SEPARATOR;
+			int size = 0;
+			int recursiveSize = 0;
+			for (String variable : expected.keySet()) {
+				if (!variable.startsWith(prefix))
+					continue;
+				recursiveSize++;
+				if (variable.indexOf(Variable.SEPARATOR, prefix.length()) == -1)
+					size++;
+			}
+
+			// The recursive size of a list includes the value of the list itself, which isn't counted here
+			Object list = map.getVariable(prefix + "*");
+			VariablesMap.Node node = list instanceof VariablesMap.Node ? (VariablesMap.Node) list : null;
+			int ownValue = node != null && node.get(null) != null ? 1 : 0;
+			assertEquals("size of " + name, size, node != null ? node.size : 0);
+			assertEquals("recursive size of " + name, recursiveSize, node != null ? node.recursiveSize - ownValue : 0);
+		}
+	}
+
+	@Test
+	public void testSizes() {
+		Random random = new Random(42);
+		VariablesMap map = new VariablesMap();
+		Map<String, Object> expected = new TreeMap<>();
+		for (int i = 0; i < 100; i++) {
+			modify(map, expected, random, 100);
+			assertContent(map, expected);
+		}
+	}
+
+	@Test
+	public void testCopy() {
+		Random random = new Random(1337);
+		VariablesMap map = new VariablesMap();
+		Map<String, Object> expected = new TreeMap<>();
+		modify(map, expected, random, 500);
+
+		for (int i = 0; i < 20; i++) {
+			VariablesMap copy = map.copy();
+			Map<String, Object> expectedCopy = new TreeMap<>(expected);
+			assertContent(copy, expectedCopy);
+
+			// Both maps are modified after copying, which must not affect the other one
+			modify(copy, expectedCopy, random, 50);
+			modify(map, expected, random, 50);
+			assertContent(map, expected);
+			assertContent(copy, expectedCopy);
+
+			// Deleting a whole list of one map
+			copy.setVariable("list" + Variable.SEPARATOR + "*", null);
+			expectedCopy.keySet().removeIf(key -> key.startsWith("list" + Variable.SEPARATOR));
+			assertContent(map, expected);
+			assertContent(copy, expectedCopy);
+			for (String name : expected.keySet()) {
+				if (!expectedCopy.containsKey(name))
+					assertNull(name, copy.getVariable(name));
+			}
+
+			// Continue with the copy, which is copied again next
+			if (i % 2 == 0) {
+				map = copy;
+				expected = expectedCopy;
+			}
+		}
+	}
+
+	/**
+	 * Whether the value index must find the given value when searching for the given searched value.
+	 */
+	private static boolean mayBeEqual(Object value, Object searched) {
+		if (value instanceof String && searched instanceof String)
+			return ((String) value).equalsIgnoreCase((String) searched);
+		if (value instanceof Number && searched instanceof Number)
+			return Math.abs(((Number) value).doubleValue() - ((Number) searched).doubleValue()) < 1e-9;
+		return value.equals(searched);
+	}
+
+	@Test
+	public void testValueIndex() {
+		Random random = new Random(7);
+		VariablesMap map = new VariablesMap();
+		Map<String, Object> expected = new TreeMap<>();
+		String list = "list" + Variable.SEPARATOR + "*";
+		assertTrue(map.isSearchable(list));
+
+		for (int i = 0; i < 200; i++) {
+			modify(map, expected, random, 20);
+			for (Object searched : VALUES) {
+				List<Pair<String, Object>> found = map.findInList(list, null, searched, true);
+				assertNotNull(found);
+				assertTrue(map.isSearchable(list) || map.getVariable(list) == null);
+
+				Set<String> foundIndices = new HashSet<>();
+				for (Pair<String, Object> pair : found)
+					foundIndices.add(pair.getFirst());
+				for (String name : NAMES) {
+					Object value = expected.get("list" + Variable.SEPARATOR + name);
+					if (value != null && mayBeEqual(value, searched))
+						assertTrue(searched + " not found at " + name, foundIndices.contains(name));
+				}
+			}
+
+			// Copies don't share the index, but create their own
+			if (i % 50 == 0)
+				map = map.copy();
+		}
+
+		// Lists containing values that aren't indexed can't be searched
+		map.setVariable("list" + Variable.SEPARATOR + "other", new Object());
+		assertNull(map.findInList(list, null, "a", true));
+	}
+
+}
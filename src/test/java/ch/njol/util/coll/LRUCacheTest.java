@@ -0,0 +1,83 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.util.coll;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class LRUCacheTest {
+
+	@Test
+	public void testStatistics() {
+		LRUCache<String, String> cache = new LRUCache<>(4);
+		assertNull(cache.get("a"));
+		assertEquals("A", cache.computeIfAbsent("a", String::toUpperCase));
+		assertEquals("A", cache.get("a"));
+		assertEquals("A", cache.computeIfAbsent("a", key -> "other"));
+
+		assertEquals(2, cache.getHits());
+		assertEquals(2, cache.getMisses());
+		assertEquals(0, cache.getEvictions());
+		assertEquals(1, cache.size());
+
+		// Clearing the cache keeps its statistics
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertNull(cache.get("a"));
+		assertEquals(3, cache.getMisses());
+	}
+
+	@Test
+	public void testEviction() {
+		LRUCache<Integer, Integer> cache = new LRUCache<>(8);
+		for (int i = 0; i < 8; i++)
+			cache.computeIfAbsent(i, key -> key);
+		assertEquals(0, cache.getEvictions());
+
+		// The oldest values are evicted, unless they have been used since
+		for (int i = 0; i < 4; i++)
+			cache.get(i);
+		cache.computeIfAbsent(8, key -> key);
+		assertEquals(3, cache.getEvictions());
+		assertEquals(6, cache.size());
+		for (int i : new int[] {0, 1, 2, 3, 7, 8})
+			assertNotNull(String.valueOf(i), cache.get(i));
+		for (int i : new int[] {4, 5, 6})
+			assertNull(String.valueOf(i), cache.get(i));
+	}
+
+	@Test
+	public void testEvictionOfEquallyRecentValues() {
+		LRUCache<Integer, Integer> cache = new LRUCache<>(4);
+		for (int i = 0; i < 4; i++)
+			cache.computeIfAbsent(i, key -> key);
+
+		// Values used between the same two insertions are equally recent, but only as many as needed are evicted
+		for (int i = 0; i < 4; i++)
+			cache.get(i);
+		cache.computeIfAbsent(4, key -> key);
+		assertEquals(2, cache.getEvictions());
+		assertEquals(3, cache.size());
+		assertNotNull(cache.get(4));
+	}
+
+}